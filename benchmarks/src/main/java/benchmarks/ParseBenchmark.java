@@ -0,0 +1,70 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a map: the .tmx file and every .tsx file it references, as TmxParser does when
+ * constructed with a path. Tileset images are not decoded. With the GC profiler the results also
+ * show how much each parse allocates.
+ *
+ * The parsers log every object and animation frame to System.out, which is silenced while the
+ * benchmark runs so the console doesn't dominate the measurement.
+ *
+ * Run from the project root with {@code gradle :benchmarks:jmh -PjmhArgs=ParseBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ParseBenchmark {
+    @Param({"small_test.tmx", "new_test.tmx", "large_test.tmx"})
+    public String map;
+
+    private MethodHandle newParser;
+    private String path;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        newParser = MethodHandles.publicLookup()
+                .findConstructor(Class.forName("TmxParser"), MethodType.methodType(void.class, String.class))
+                .asType(MethodType.methodType(Object.class, String.class));
+        path = "resources/" + map;
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    /**
+     * @return The parser, so the work can't be eliminated.
+     */
+    @Benchmark
+    public Object parse() throws Throwable {
+        return newParser.invokeExact(path);
+    }
+}
@@ -0,0 +1,133 @@
+package benchmarks;
+
+import models.TmxMapModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures TmxRenderer.render drawing a whole frame (tile layers and animations) into a headless
+ * offscreen image the size of the game window, for several maps, camera positions and zoom levels.
+ *
+ * The game classes live in the default package, which can't be imported from here, so they are
+ * created and called through method handles looked up once in the setup.
+ *
+ * Run from the project root with {@code gradle :benchmarks:jmh}; results include the GC profiler's
+ * allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+    private static final int VIEWPORT_WIDTH = 700;     // Same viewport as the game's camera
+    private static final int VIEWPORT_HEIGHT = 700;
+    private static final long ANIMATION_TIME = 1_000L; // Fixed animation clock so every run draws the same frames
+
+    @Param({"small_test.tmx", "new_test.tmx", "large_test.tmx"})
+    public String map;
+
+    /**
+     * Where the camera looks, as a fraction of the map size: top-left corner, center or bottom-right corner.
+     */
+    @Param({"0.0", "0.5", "1.0"})
+    public double position;
+
+    @Param({"2.0", "6.0"})
+    public float zoom;
+
+    private Object renderer;
+    private Object camera;
+    private MethodHandle render;
+    private MethodHandle applyTransform;
+    private BufferedImage image;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        Class<?> parserClass = Class.forName("TmxParser");
+        Class<?> rendererClass = Class.forName("TmxRenderer");
+        Class<?> cameraClass = Class.forName("Camera");
+        Class<?> characterClass = Class.forName("Character");
+
+        Object parser = lookup.findConstructor(parserClass, MethodType.methodType(void.class, String.class))
+                .invoke("resources/" + map);
+        TmxMapModel mapModel = (TmxMapModel) lookup.findVirtual(parserClass, "getMapModel",
+                MethodType.methodType(TmxMapModel.class)).invoke(parser);
+        List<?> layers = (List<?>) lookup.findVirtual(parserClass, "getLayers", MethodType.methodType(List.class)).invoke(parser);
+        List<?> objects = (List<?>) lookup.findVirtual(parserClass, "getObjects", MethodType.methodType(List.class)).invoke(parser);
+        List<?> animations = (List<?>) lookup.findVirtual(parserClass, "getAnimations", MethodType.methodType(List.class)).invoke(parser);
+        List<?> tilesets = (List<?>) lookup.findVirtual(parserClass, "getTilesets", MethodType.methodType(List.class)).invoke(parser);
+
+        renderer = lookup.findConstructor(rendererClass, MethodType.methodType(void.class, TmxMapModel.class,
+                        List.class, List.class, List.class, List.class, cameraClass, java.util.Set.class))
+                .invoke(mapModel, layers, objects, animations, tilesets, null, new HashSet<String>());
+
+        int mapPixelWidth = mapModel.getMapWidth() * mapModel.getTileWidth();
+        int mapPixelHeight = mapModel.getMapHeight() * mapModel.getTileHeight();
+        Object character = lookup.findConstructor(characterClass, MethodType.methodType(void.class, String.class,
+                        int.class, int.class, int.class, int.class, rendererClass))
+                .invoke("B_witch", (int) (mapPixelWidth * position), (int) (mapPixelHeight * position), 26, 26, renderer);
+        camera = lookup.findConstructor(cameraClass, MethodType.methodType(void.class, int.class, int.class,
+                        float.class, characterClass))
+                .invoke(VIEWPORT_WIDTH, VIEWPORT_HEIGHT, zoom, character);
+        lookup.findVirtual(cameraClass, "update", MethodType.methodType(void.class, int.class, int.class))
+                .invoke(camera, mapPixelWidth, mapPixelHeight);
+        lookup.findVirtual(rendererClass, "setCamera", MethodType.methodType(void.class, cameraClass))
+                .invoke(renderer, camera);
+        lookup.findVirtual(rendererClass, "updateAnimations", MethodType.methodType(void.class, long.class))
+                .invoke(renderer, ANIMATION_TIME);
+
+        render = lookup.findVirtual(rendererClass, "render", MethodType.methodType(void.class, Graphics.class))
+                .asType(MethodType.methodType(void.class, Object.class, Graphics.class));
+        applyTransform = lookup.findVirtual(cameraClass, "applyTransform", MethodType.methodType(void.class, Graphics2D.class))
+                .asType(MethodType.methodType(void.class, Object.class, Graphics2D.class));
+
+        image = new BufferedImage(VIEWPORT_WIDTH, VIEWPORT_HEIGHT, BufferedImage.TYPE_INT_RGB);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        image.flush();
+    }
+
+    /**
+     * Renders one frame the way the game panel does: clip to the viewport, apply the camera transform
+     * and draw the map.
+     *
+     * @return The target image, so the work can't be eliminated.
+     */
+    @Benchmark
+    public BufferedImage render() throws Throwable {
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setClip(0, 0, VIEWPORT_WIDTH, VIEWPORT_HEIGHT);
+            applyTransform.invokeExact(camera, g);
+            render.invokeExact(renderer, (Graphics) g);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * The time that animations are drawn at. The game loop advances it once per update, so every
+ * animation drawn during a frame, however many times and by whichever viewer, shows the frame for
+ * the same moment. Frame lookup is a pure function of this time; drawing an animation never
+ * advances it.
+ *
+ * Dialogs keep drawing animations while a modal dialog blocks the game loop. When the clock hasn't
+ * been advanced for a while, {@link #currentTime()} falls back to the wall clock, which the
+ * simulation time follows.
+ */
+public class AnimationClock {
+    private static final long STALE_NANOS = 100_000_000L;  // Time without an update after which the loop counts as stalled
+
+    private long frameTimeMillis;
+    private long advancedAtNanos;
+
+    public AnimationClock() {
+        this.frameTimeMillis = System.currentTimeMillis();
+        this.advancedAtNanos = System.nanoTime();
+    }
+
+    /**
+     * Moves the clock to the given time.
+     *
+     * @param timeMillis The simulation time in milliseconds.
+     */
+    public void advanceTo(long timeMillis) {
+        frameTimeMillis = timeMillis;
+        advancedAtNanos = System.nanoTime();
+    }
+
+    /**
+     * @return The time of the last update, in milliseconds.
+     */
+    public long getFrameTime() {
+        return frameTimeMillis;
+    }
+
+    /**
+     * Returns the time of the last update, or the wall clock time if the game loop has stopped
+     * advancing the clock (e.g. while a modal dialog is open).
+     *
+     * @return The time to draw animations at, in milliseconds.
+     */
+    public long currentTime() {
+        if (System.nanoTime() - advancedAtNanos > STALE_NANOS) {
+            return System.currentTimeMillis();
+        }
+        return frameTimeMillis;
+    }
+}
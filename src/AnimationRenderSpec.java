@@ -0,0 +1,101 @@
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Describes how an animated map object is drawn: its size, its offset from the object position and
+ * any special behavior. Specs are resolved once per animation from the object name using the rule
+ * table below, so drawing a frame needs no string matching.
+ */
+public class AnimationRenderSpec {
+
+    /**
+     * Special handling applied when drawing an animation.
+     */
+    public enum Behavior {
+        DRAW,       // Draw the frame at the spec's offset and size
+        HIDDEN,     // Never drawn on the map (e.g. gnomes, which only appear in their dialog)
+        HELP_NPC    // Drawn normally until helped, then moved next to the house
+    }
+
+    private static final int TILE_RENDER_SIZE = 64;    // Size in pixels for rendering tiles
+
+    private static final AnimationRenderSpec DEFAULT_SPEC =
+            new AnimationRenderSpec(0, -30, TILE_RENDER_SIZE / 2, TILE_RENDER_SIZE / 2, Behavior.DRAW);
+
+    // Rules are checked in order against the full animation name; the first match wins
+    private static final List<Rule> RULES = List.of(
+            new Rule("(?i)apple.*", new AnimationRenderSpec(0, -15, 12, 12, Behavior.DRAW)),
+            new Rule("(?i)study_stud.*", new AnimationRenderSpec(0, -15, 10, 10, Behavior.DRAW)),
+            new Rule("brown_shop|pink_shop", new AnimationRenderSpec(0, -30, 40, 40, Behavior.DRAW)),
+            new Rule("fountain", new AnimationRenderSpec(0, -50, 45, 50, Behavior.DRAW)),
+            new Rule("bus", new AnimationRenderSpec(0, -120, TILE_RENDER_SIZE * 2, TILE_RENDER_SIZE * 2, Behavior.DRAW)),
+            new Rule("lowXPChest", new AnimationRenderSpec(-5, -30, 40, TILE_RENDER_SIZE / 2, Behavior.DRAW)),
+            new Rule("(?i)Beetle.*", new AnimationRenderSpec(0, -15, TILE_RENDER_SIZE / 4, TILE_RENDER_SIZE / 4, Behavior.DRAW)),
+            new Rule("(?i)slime.*", new AnimationRenderSpec(0, -30, TILE_RENDER_SIZE / 2, TILE_RENDER_SIZE / 2, Behavior.DRAW)),
+            new Rule("(?i)spider.*", new AnimationRenderSpec(0, -30, TILE_RENDER_SIZE / 4, TILE_RENDER_SIZE / 4, Behavior.DRAW)),
+            new Rule("(?i)phantom.*", new AnimationRenderSpec(0, -30, TILE_RENDER_SIZE / 4, TILE_RENDER_SIZE / 4, Behavior.DRAW)),
+            new Rule("(?i)sign.*", new AnimationRenderSpec(0, -20, 20, 20, Behavior.DRAW)),
+            new Rule("(?i)frog.*", new AnimationRenderSpec(0, -20, 20, 20, Behavior.DRAW)),
+            new Rule("(?i)help_npc(_\\d+)?", new AnimationRenderSpec(0, -20, 20, 20, Behavior.HELP_NPC)),
+            new Rule("(?i)gnome_.*", new AnimationRenderSpec(0, 0, 0, 0, Behavior.HIDDEN))
+    );
+
+    private final int offsetX;
+    private final int offsetY;
+    private final int width;
+    private final int height;
+    private final Behavior behavior;
+
+    private AnimationRenderSpec(int offsetX, int offsetY, int width, int height, Behavior behavior) {
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.width = width;
+        this.height = height;
+        this.behavior = behavior;
+    }
+
+    /**
+     * Finds the render spec for an animated object.
+     *
+     * @param animationName The name of the animation (the object name on the map).
+     * @return The matching spec, or the default 32x32 spec if no rule matches.
+     */
+    public static AnimationRenderSpec forAnimation(String animationName) {
+        for (Rule rule : RULES) {
+            if (rule.pattern.matcher(animationName).matches()) {
+                return rule.spec;
+            }
+        }
+        return DEFAULT_SPEC;
+    }
+
+    public int getOffsetX() {
+        return offsetX;
+    }
+
+    public int getOffsetY() {
+        return offsetY;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public Behavior getBehavior() {
+        return behavior;
+    }
+
+    private static final class Rule {
+        private final Pattern pattern;
+        private final AnimationRenderSpec spec;
+
+        private Rule(String regex, AnimationRenderSpec spec) {
+            this.pattern = Pattern.compile(regex);
+            this.spec = spec;
+        }
+    }
+}
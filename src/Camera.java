@@ -9,6 +9,8 @@ public class Camera {
     private int width, height;    // Dimensions of the viewport (typically screen dimensions)
     private float zoomLevel;      // Zoom level of the camera, default should be 1.0f for normal scale
     private Character character;  // The character object the camera should follow
+    private int mapWidth, mapHeight; // Map size in pixels from the last update, used for clamping
+    private final HudLayer hudLayer; // Cached HUD showing the character's stats
 
     /**
      * Initializes the Camera with specified viewport dimensions, zoom level, and target character.
@@ -23,7 +25,7 @@ public class Camera {
         this.height = height;
         this.zoomLevel = zoomLevel;
         this.character = character;
-
+        this.hudLayer = new HudLayer(character);
     }
 
     /**
@@ -34,6 +36,8 @@ public class Camera {
      * @param mapHeight  Height of the entire map in pixels.
      */
     public void update(int mapWidth, int mapHeight) {
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
         // Center the camera on the character's current position
         x = (int) (character.getX() - width / (2 * zoomLevel));
         y = (int) (character.getY() - height / (2 * zoomLevel));
@@ -59,6 +63,48 @@ public class Camera {
 
     }
 
+    /**
+     * Applies the camera transformation centered on the character's interpolated position, so the
+     * view moves smoothly between fixed update steps.
+     *
+     * @param g2d   The Graphics2D context to apply the camera transformation on.
+     * @param alpha How far the frame is between the previous and the current update step, 0 to 1.
+     */
+    public void applyTransform(Graphics2D g2d, double alpha) {
+        g2d.scale(zoomLevel, zoomLevel);
+        g2d.translate(-getRenderX(alpha), -getRenderY(alpha));
+    }
+
+    /**
+     * Applies only the camera translation to a Graphics2D object, for drawing the world at native
+     * resolution into a backbuffer that is upscaled afterwards. The interpolated position is rounded
+     * to whole pixels so tiles stay aligned to the backbuffer grid.
+     *
+     * @param g2d   The Graphics2D context to translate.
+     * @param alpha How far the frame is between the previous and the current update step, 0 to 1.
+     */
+    public void applyTranslation(Graphics2D g2d, double alpha) {
+        g2d.translate(-Math.round(getRenderX(alpha)), -Math.round(getRenderY(alpha)));
+    }
+
+    /**
+     * Computes the camera's x-coordinate from the character's interpolated position, clamped to
+     * the map like {@link #update(int, int)}.
+     */
+    private double getRenderX(double alpha) {
+        double renderX = character.getRenderX(alpha) - width / (2 * zoomLevel);
+        return Math.max(0, Math.min(renderX, mapWidth - (int) (width / zoomLevel)));
+    }
+
+    /**
+     * Computes the camera's y-coordinate from the character's interpolated position, clamped to
+     * the map like {@link #update(int, int)}.
+     */
+    private double getRenderY(double alpha) {
+        double renderY = character.getRenderY(alpha) - height / (2 * zoomLevel);
+        return Math.max(0, Math.min(renderY, mapHeight - (int) (height / zoomLevel)));
+    }
+
     // Getters for camera position, dimensions, and zoom level
 
     /**
@@ -114,116 +160,13 @@ public class Camera {
     public int getWidth() {
         return width;
     }
-    public void drawHealth(Graphics g) {
-        int barWidth = 80;
-        int barHeight = 10;
-
-        // Draw health bar background
-        g.setColor(Color.GRAY);
-        g.fillRect(x, y, barWidth, barHeight);
-
-        // Calculate health percentage (max health is 100)
-        float healthPercentage = (float) character.getHealth() / 100;
-        int currentHealthWidth = (int) (barWidth * healthPercentage);
-
-        // Draw current health
-        g.setColor(Color.RED);
-        g.fillRect(x, y, currentHealthWidth, barHeight);
-
-        // Draw border
-        g.setColor(Color.BLACK);
-        g.drawRect(x, y, barWidth, barHeight);
-
-        // Draw health text
-        g.setColor(Color.WHITE);
-        Font customFont = FontUtils.loadFont("/fonts/Bungee-Regular.ttf", 8);
-
-        g.setFont(customFont);
-        String healthText = character.getHealth() + "/100";
-        FontMetrics fm = g.getFontMetrics();
-        int textX = x + (barWidth - fm.stringWidth(healthText)) / 2;
-        int textY = y + ((barHeight - fm.getHeight()) / 2) + fm.getAscent();
-        g.drawString(healthText, textX, textY);
-    }
-    public void drawStudyStudCount(Graphics g) {
-        int barWidth = 100;
-        int barHeight = 10;
-
-        // Draw health bar background
-        Color customPurpleColor = new Color(207, 187, 232);
-        g.setColor(customPurpleColor);
-        g.fillRect(this.x+125, y, barWidth, barHeight);
-
-        // Calculate health percentage (max health is 100)
-        float healthPercentage = (float) character.getHealth() / 100;
-        int currentHealthWidth = (int) (barWidth * healthPercentage);
-
-        // Draw current health
-        g.setColor(Color.WHITE);
-     //   g.fillRect(x, y, currentHealthWidth, barHeight);
-
-        // Draw border
-        g.setColor(Color.BLACK);
-        g.drawRect(this.x+125, y, barWidth, barHeight);
-
-        // Draw health text
-        g.setColor(Color.WHITE);
-        Font customFont = FontUtils.loadFont("/fonts/Bungee-Regular.ttf", 8);
-
-        g.setFont(customFont);
-        int studyStudCount = 0;
-        for (Item item : character.getInventory()) {
-            if (item.getName().equalsIgnoreCase("Study Stud")) {
-                studyStudCount = item.getQuantity();
-                break;
-            }
-        }
-        String studyStudText = "Study Stud Count: " + studyStudCount;
-        FontMetrics fm = g.getFontMetrics();
-        int textX = x+130;
-        int textY = y + ((barHeight - fm.getHeight()) / 2) + fm.getAscent();
-
-      //  g.drawString(studyStudText, textX, textY);
-        Color customColor = new Color(154, 82, 241);
-        g.setColor(customColor);
-      //  String studyStudCountText = "Study Studs: " + character.getStudy_stud_count();
-        g.drawString(studyStudText, textX, textY);
-    }
-
-    public void drawXP(Graphics g) {
-        int barWidth = 80;
-        int barHeight = 10;
-
-
-        // Draw XP bar background
-        g.setColor(Color.GRAY);
-        g.fillRect(x, y+15, barWidth, barHeight);
-
-        // Calculate XP percentage using levelProgression and levelCap
-        float xpPercentage = (float) character.getLevelProgression() / character.getLevelCap();
-        int currentXPWidth = (int) (barWidth * xpPercentage);
-
-        // Draw current XP
-        g.setColor(Color.BLUE);
-        g.fillRect(x, y+15, currentXPWidth, barHeight);
-
-        // Draw border
-        g.setColor(Color.BLACK);
-        g.drawRect(x, y+15, barWidth, barHeight);
-
-        // Draw XP text
-        g.setColor(Color.WHITE);
-        Font customFont = FontUtils.loadFont("/fonts/Bungee-Regular.ttf", 8);
-
-        g.setFont(customFont);
-        String xpText = "Level " + character.getLevel() + " (" +
-                character.getLevelProgression() + "/" + character.getLevelCap() + ")";
-        FontMetrics fm = g.getFontMetrics();
-        int textX = x + (barWidth - fm.stringWidth(xpText)) / 2;
-        int textY = y + 15 + ((barHeight - fm.getHeight()) / 2) + fm.getAscent();
-        g.drawString(xpText, textX, textY);
-    }
 
+    /**
+     * Draws the health bar, XP bar and Study Stud count in the top-left corner of the view.
+     *
+     * @param g2d Graphics context with the camera transform applied.
+     */
+    public void drawHud(Graphics2D g2d) {
+        hudLayer.draw(g2d, x, y);
     }
-
-
+}
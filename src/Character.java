@@ -4,6 +4,8 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import javax.imageio.ImageIO;
 import javax.swing.*;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -18,6 +20,8 @@ public class Character {
     private int height;
     private int XP;
     private static final int MAX_HEALTH = 100;
+    private static final double MOVE_SPEED = 300.0;  // Pixels per second: the old 10 px step at a ~30 Hz key repeat
+    private static final double DIAGONAL_SPEED = MOVE_SPEED / Math.sqrt(2);  // Per-axis speed when moving diagonally
     private int level;
     private int levelProgression;
     private int levelCap;
@@ -34,6 +38,14 @@ public class Character {
     private boolean isMovingLeft;
     private boolean isMovingRight;
     private String lastDirection;
+    private int directionX;           // Held movement direction on each axis: -1, 0 or 1
+    private int directionY;
+    private double remainderX;        // Sub-pixel movement carried over between update steps
+    private double remainderY;
+    private int previousX;            // Position at the start of the last update step, for interpolation
+    private int previousY;
+    private final List<ChangeListener> changeListeners = new ArrayList<>();  // Notified when stats or inventory change
+    private final ChangeEvent changeEvent = new ChangeEvent(this);
 
 
 
@@ -41,6 +53,8 @@ public class Character {
     public Character(String spritePath, int startX, int startY, int width, int height, TmxRenderer tmxRenderer) {
         this.x = startX; // Sprite starting position
         this.y = startY;
+        this.previousX = startX;
+        this.previousY = startY;
         this.width = width;
         this.height = height;
         this.XP = 0; // Initial XP
@@ -86,6 +100,77 @@ public class Character {
         }
     }
 
+    /**
+     * Draws the character between its previous and current update positions, so motion stays
+     * smooth when frames fall between fixed update steps.
+     *
+     * @param g     The graphics context.
+     * @param alpha How far the frame is between the previous and the current update step, 0 to 1.
+     */
+    public void draw(Graphics g, double alpha) {
+        Graphics2D g2d = (Graphics2D) g;
+        double offsetX = getRenderX(alpha) - x;
+        double offsetY = getRenderY(alpha) - y;
+        g2d.translate(offsetX, offsetY);
+        draw(g);
+        g2d.translate(-offsetX, -offsetY);
+    }
+
+    /**
+     * Sets the direction the player is holding on each axis. The character moves in that direction
+     * on every update step until it is set back to zero.
+     *
+     * @param directionX -1 for left, 1 for right, 0 for none.
+     * @param directionY -1 for up, 1 for down, 0 for none.
+     */
+    public void setMovementDirection(int directionX, int directionY) {
+        this.directionX = directionX;
+        this.directionY = directionY;
+    }
+
+    /**
+     * Advances movement by one fixed update step.
+     *
+     * @param deltaSeconds Length of the update step in seconds.
+     */
+    public void update(double deltaSeconds) {
+        previousX = x;
+        previousY = y;
+        if (directionX == 0 && directionY == 0) {
+            remainderX = 0;
+            remainderY = 0;
+            return;
+        }
+
+        // Keep the overall speed the same when two directions are held
+        double speed = directionX != 0 && directionY != 0 ? DIAGONAL_SPEED : MOVE_SPEED;
+        remainderX += directionX * speed * deltaSeconds;
+        remainderY += directionY * speed * deltaSeconds;
+        int dx = (int) remainderX;
+        int dy = (int) remainderY;
+        remainderX -= dx;
+        remainderY -= dy;
+        if (dx != 0 || dy != 0) {
+            move(dx, dy);
+        }
+    }
+
+    /**
+     * @param alpha How far the frame is between the previous and the current update step, 0 to 1.
+     * @return The interpolated x-coordinate to draw the character at.
+     */
+    public double getRenderX(double alpha) {
+        return previousX + (x - previousX) * alpha;
+    }
+
+    /**
+     * @param alpha How far the frame is between the previous and the current update step, 0 to 1.
+     * @return The interpolated y-coordinate to draw the character at.
+     */
+    public double getRenderY(double alpha) {
+        return previousY + (y - previousY) * alpha;
+    }
+
     public void move(int dx, int dy) {
         // Reset movement direction booleans
         isMovingLeft = false;
@@ -111,23 +196,23 @@ public class Character {
         // Update position
         this.x += dx;
         this.y += dy;
-
-        // Debugging (Optional)
-        System.out.println("Moving Left: " + isMovingLeft + ", Moving Right: " + isMovingRight);
     }
 
     // Health Management
     public void addHealth(int healthToAdd) {
         this.health = Math.min(this.health + healthToAdd, MAX_HEALTH); // Ensure health doesn't exceed max
         System.out.println("You gained " + healthToAdd + " health");
+        fireStateChanged();
     }
     // Removes player health
     public void removeHealth(int healthToRemove) {
         this.health = Math.max(this.health - healthToRemove, 0); // Ensure health doesn't go below zero
+        fireStateChanged();
     }
     // Sets player health
     public void setHealth(int health) {
         this.health = Math.max(0, Math.min(health, MAX_HEALTH)); // Health within range
+        fireStateChanged();
     }
     // Returns health of player
     public int getHealth() {
@@ -158,6 +243,7 @@ public class Character {
             // Restore full health on level up (optional - remove if you don't want this)
             this.health = 100;
         }
+        fireStateChanged();
     }
     // Returns player Xp
     public int getXP() {
@@ -186,8 +272,10 @@ public class Character {
         return this.x;
     }
 
+    // Placing the character directly (spawns, collision reverts) skips interpolation
     public void setX(int x) {
         this.x = x;
+        this.previousX = x;
     }
 
     public int getY() {
@@ -196,6 +284,7 @@ public class Character {
 
     public void setY(int y) {
         this.y = y;
+        this.previousY = y;
     }
 
     public int getWidth() {
@@ -213,10 +302,12 @@ public class Character {
 
     public void addStudyStud(int study_stud_count) {
         this.study_stud_count = this.study_stud_count + study_stud_count;
+        fireStateChanged();
     }
 
     public void removeStudyStud(int study_stud_count) {
         this.study_stud_count = this.study_stud_count - study_stud_count;
+        fireStateChanged();
     }
 
     // Inventory Methods
@@ -226,16 +317,19 @@ public class Character {
             for (Item invItem : inventory) {
                 if (invItem.getName().equals(item.getName())) {
                     invItem.setQuantity(invItem.getQuantity() + item.getQuantity());
+                    fireStateChanged();
                     return;
                 }
             }
         }
         // If item is not stackable or doesn't exist in inventory
         inventory.add(item);
+        fireStateChanged();
     }
     // Removes item from inventory
     public void removeItem(Item item) {
         inventory.remove(item);
+        fireStateChanged();
     }
     // Uses an item
     public void useItem(Item item) {
@@ -258,8 +352,18 @@ public class Character {
         item.setQuantity(item.getQuantity() - 1);
         if (item.getQuantity() <= 0) {
             removeItem(item);
+        } else {
+            fireStateChanged();
         }
     }
+
+    /**
+     * Notifies listeners that the inventory changed. Call this after changing the quantity of an
+     * item directly, since the character can't see changes made through {@link Item#setQuantity(int)}.
+     */
+    public void notifyInventoryChanged() {
+        fireStateChanged();
+    }
     // Displays player inventory on screen
     public void displayInventory() {
         SwingUtilities.invokeLater(() -> {
@@ -272,6 +376,25 @@ public class Character {
         return inventory;
     }
 
+    /**
+     * Registers a listener that is notified whenever health, XP, level or the inventory changes.
+     *
+     * @param listener The listener to add.
+     */
+    public void addChangeListener(ChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    private void fireStateChanged() {
+        for (ChangeListener listener : changeListeners) {
+            listener.stateChanged(changeEvent);
+        }
+    }
+
     // Getter and Setter for defending
     public boolean isDefending() {
         return defending;
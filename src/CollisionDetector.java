@@ -248,6 +248,26 @@ public class CollisionDetector {
         return new CollisionResult(collidedWithWall, enemyCollision, npcCollision, shopCollision, transitionCollision, transitionObject);
     }
 
+    /**
+     * Checks only for wall collisions, leaving every other object alone: nothing is collected,
+     * fought or marked as encountered. Used while the next map loads, when the character must
+     * still be stopped by walls but no new interaction may start.
+     *
+     * @return CollisionResult with only the wall collision set.
+     */
+    public CollisionResult checkWallCollisions() {
+        collidedWithWall = false;
+        for (ObjectModel object : objects) {
+            if (isColliding(character, object)
+                    && !main.getCurrentMapState().getEncounteredObjects().contains(object.getName().toLowerCase())
+                    && getObjectType(object).equals("wall")) {
+                setWallFlag(true);
+                collidedWithWall = true;
+            }
+        }
+        return new CollisionResult(collidedWithWall, false, false, false, false, null);
+    }
+
     // Helper method to find an object by name
     private ObjectModel findObjectByName(String name) {
         for (ObjectModel object : objects) {
@@ -1,9 +1,21 @@
 import java.awt.Font;
 import java.awt.FontFormatException;
+import java.awt.GraphicsEnvironment;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Registry for the game's custom fonts. Each font file is parsed once and every size derived from
+ * it is kept, so asking for a font is a map lookup after the first call. Safe to use from any thread.
+ */
 public class FontUtils {
+    public static final String BUNGEE_REGULAR = "/fonts/Bungee-Regular.ttf";
+    public static final String RUBIK_MONO_ONE_REGULAR = "/fonts/RubikMonoOne-Regular.ttf";
+
+    private static final Map<String, Font> baseFonts = new ConcurrentHashMap<>();
+    private static final Map<String, Map<Float, Font>> derivedFonts = new ConcurrentHashMap<>();
 
     /**
      * Loads a custom font from the specified path with the given size.
@@ -13,15 +25,44 @@ public class FontUtils {
      * @return The loaded Font object, or a default font if the custom font cannot be loaded.
      */
     public static Font loadFont(String fontPath, float size) {
+        return derivedFonts.computeIfAbsent(fontPath, path -> new ConcurrentHashMap<>())
+                .computeIfAbsent(size, s -> getBaseFont(fontPath).deriveFont(s));
+    }
+
+    /**
+     * Parses fonts ahead of time so the first dialog or frame that uses them doesn't pay for it.
+     *
+     * @param register   Whether to also register the fonts with the local GraphicsEnvironment, which
+     *                   makes them available by family name.
+     * @param fontPaths  Paths to the font files within the resources folder.
+     */
+    public static void preloadFonts(boolean register, String... fontPaths) {
+        for (String fontPath : fontPaths) {
+            Font font = getBaseFont(fontPath);
+            if (register && !GraphicsEnvironment.isHeadless()) {
+                GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(font);
+            }
+        }
+    }
+
+    /**
+     * Returns the parsed font at size 1, parsing the file on the first request. Missing or broken
+     * files are reported once and replaced by Arial.
+     */
+    private static Font getBaseFont(String fontPath) {
+        return baseFonts.computeIfAbsent(fontPath, FontUtils::parseFont);
+    }
+
+    private static Font parseFont(String fontPath) {
         try (InputStream fontStream = FontUtils.class.getResourceAsStream(fontPath)) {
             if (fontStream != null) {
-                return Font.createFont(Font.TRUETYPE_FONT, fontStream).deriveFont(size);
+                return Font.createFont(Font.TRUETYPE_FONT, fontStream);
             } else {
                 System.err.println("Font file not found: " + fontPath + ". Using default font.");
             }
         } catch (FontFormatException | IOException e) {
             e.printStackTrace();
         }
-        return new Font("Arial", Font.PLAIN, (int) size); // Fallback to default font
+        return new Font("Arial", Font.PLAIN, 1); // Fallback to default font
     }
 }
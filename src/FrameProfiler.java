@@ -0,0 +1,214 @@
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures where frame time goes. Each frame is split into phases that are timed with
+ * System.nanoTime, and the profiler keeps rolling averages per phase, the bytes allocated per frame
+ * on the event dispatch thread and a histogram of frame times. The results can be drawn as an
+ * overlay and the histogram written to a file.
+ *
+ * All methods are meant to be called from the event dispatch thread.
+ */
+public class FrameProfiler {
+
+    /**
+     * The timed parts of a frame.
+     */
+    public enum Phase {
+        CAMERA("Camera.update"),
+        TILES("Tile layers"),
+        ANIMATIONS("Animations"),
+        CHARACTER("Character.draw"),
+        HUD("HUD"),
+        COLLISIONS("Collisions");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final int WINDOW_FRAMES = 120;          // Number of frames in the rolling averages
+    private static final int HISTOGRAM_BUCKET_MS = 1;       // Width of a histogram bucket
+    private static final int HISTOGRAM_BUCKETS = 50;        // Buckets below the overflow bucket
+
+    private final Phase[] phases = Phase.values();
+    private final long[] phaseNanos = new long[phases.length];            // Time spent in the current frame
+    private final long[] phaseStart = new long[phases.length];
+    private final long[][] phaseHistory = new long[phases.length][WINDOW_FRAMES];
+    private final long[] frameHistory = new long[WINDOW_FRAMES];
+    private final long[] allocationHistory = new long[WINDOW_FRAMES];
+    private final long[] histogram = new long[HISTOGRAM_BUCKETS + 1];
+    private final com.sun.management.ThreadMXBean threadBean;
+    private int historyIndex;
+    private int historySize;
+    private long frameStart;
+    private long frameStartAllocated;
+    private long totalFrames;
+    private boolean overlayVisible;
+
+    public FrameProfiler() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported()) {
+            sunBean.setThreadAllocatedMemoryEnabled(true);
+            this.threadBean = sunBean;
+        } else {
+            this.threadBean = null;
+        }
+    }
+
+    /**
+     * Marks the start of a frame.
+     */
+    public void beginFrame() {
+        frameStart = System.nanoTime();
+        frameStartAllocated = allocatedBytes();
+    }
+
+    /**
+     * Marks the end of a frame and folds its measurements into the averages and histogram.
+     */
+    public void endFrame() {
+        long frameNanos = System.nanoTime() - frameStart;
+        long allocated = allocatedBytes() - frameStartAllocated;
+
+        for (int i = 0; i < phases.length; i++) {
+            phaseHistory[i][historyIndex] = phaseNanos[i];
+            phaseNanos[i] = 0;
+        }
+        frameHistory[historyIndex] = frameNanos;
+        allocationHistory[historyIndex] = allocated;
+        historyIndex = (historyIndex + 1) % WINDOW_FRAMES;
+        historySize = Math.min(historySize + 1, WINDOW_FRAMES);
+
+        int bucket = (int) Math.min(frameNanos / 1_000_000L / HISTOGRAM_BUCKET_MS, HISTOGRAM_BUCKETS);
+        histogram[bucket]++;
+        totalFrames++;
+    }
+
+    /**
+     * Starts timing a phase. Phases may run several times per frame; their times add up.
+     */
+    public void begin(Phase phase) {
+        phaseStart[phase.ordinal()] = System.nanoTime();
+    }
+
+    /**
+     * Stops timing a phase started with {@link #begin(Phase)}.
+     */
+    public void end(Phase phase) {
+        phaseNanos[phase.ordinal()] += System.nanoTime() - phaseStart[phase.ordinal()];
+    }
+
+    public void toggleOverlay() {
+        overlayVisible = !overlayVisible;
+    }
+
+    public boolean isOverlayVisible() {
+        return overlayVisible;
+    }
+
+    /**
+     * Draws the averages, allocation rate and frame-time histogram in the top-right corner.
+     *
+     * @param g           Graphics context in screen coordinates.
+     * @param panelWidth  Width of the panel in pixels.
+     * @param loop        The game loop, for frame and drop counts; may be null.
+     */
+    public void drawOverlay(Graphics2D g, int panelWidth, GameLoop loop) {
+        if (!overlayVisible) {
+            return;
+        }
+        int lineHeight = 14;
+        int width = 230;
+        int height = lineHeight * (phases.length + 5) + 50;
+        int left = panelWidth - width - 10;
+        int top = 10;
+
+        g.setColor(new Color(0, 0, 0, 170));
+        g.fillRect(left, top, width, height);
+        g.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        g.setColor(Color.WHITE);
+
+        int y = top + lineHeight;
+        g.drawString(String.format("frame     %6.2f ms", average(frameHistory) / 1e6), left + 8, y);
+        for (int i = 0; i < phases.length; i++) {
+            y += lineHeight;
+            g.drawString(String.format("%-14s%6.2f ms", phases[i].label, average(phaseHistory[i]) / 1e6), left + 8, y);
+        }
+        y += lineHeight;
+        if (threadBean != null) {
+            g.drawString(String.format("alloc     %6.1f KB/frame", average(allocationHistory) / 1024.0), left + 8, y);
+        } else {
+            g.drawString("alloc     unavailable", left + 8, y);
+        }
+        if (loop != null) {
+            y += lineHeight;
+            g.drawString("frames " + loop.getFramesRendered() + "  dropped " + loop.getDroppedFrames(), left + 8, y);
+        }
+
+        // Histogram of frame times, one bar per bucket, scaled to the fullest bucket
+        y += 10;
+        int chartHeight = 40;
+        long maxCount = 1;
+        for (long count : histogram) {
+            maxCount = Math.max(maxCount, count);
+        }
+        int barWidth = Math.max(1, (width - 16) / histogram.length);
+        g.setColor(new Color(120, 200, 120));
+        for (int i = 0; i < histogram.length; i++) {
+            int barHeight = (int) (chartHeight * histogram[i] / maxCount);
+            g.fillRect(left + 8 + i * barWidth, y + chartHeight - barHeight, barWidth, barHeight);
+        }
+        g.setColor(Color.WHITE);
+        g.drawString("0 ms", left + 8, y + chartHeight + lineHeight);
+        g.drawString(">" + HISTOGRAM_BUCKETS * HISTOGRAM_BUCKET_MS + " ms", left + width - 60, y + chartHeight + lineHeight);
+    }
+
+    /**
+     * Writes the frame-time histogram and the latest per-phase averages to a text file.
+     *
+     * @param file The file to write.
+     */
+    public void writeReport(File file) {
+        try (PrintWriter writer = new PrintWriter(file)) {
+            writer.println("frames: " + totalFrames);
+            writer.println("frame time histogram (ms, frames):");
+            for (int i = 0; i < histogram.length; i++) {
+                String range = i < HISTOGRAM_BUCKETS
+                        ? (i * HISTOGRAM_BUCKET_MS) + "-" + ((i + 1) * HISTOGRAM_BUCKET_MS)
+                        : ">=" + (HISTOGRAM_BUCKETS * HISTOGRAM_BUCKET_MS);
+                writer.println(range + "\t" + histogram[i]);
+            }
+            writer.println("average over the last " + historySize + " frames (ms):");
+            writer.printf("frame\t%.3f%n", average(frameHistory) / 1e6);
+            for (int i = 0; i < phases.length; i++) {
+                writer.printf("%s\t%.3f%n", phases[i].label, average(phaseHistory[i]) / 1e6);
+            }
+            if (threadBean != null) {
+                writer.printf("allocated bytes per frame\t%.0f%n", average(allocationHistory));
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing frame profile: " + e.getMessage());
+        }
+    }
+
+    private double average(long[] history) {
+        if (historySize == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = 0; i < historySize; i++) {
+            sum += history[i];
+        }
+        return (double) sum / historySize;
+    }
+
+    private long allocatedBytes() {
+        return threadBean != null ? threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+}
@@ -0,0 +1,155 @@
+import javax.swing.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the game from a dedicated thread instead of a Swing timer. The thread keeps its own frame
+ * schedule with System.nanoTime and, once per frame, hands an update phase followed by a render
+ * phase to the event dispatch thread, where all game state and Swing components live.
+ *
+ * The update phase runs the simulation in fixed steps of 1/120 s, as many as the elapsed time
+ * calls for, so movement, animation and collisions behave the same at any frame rate. The render
+ * phase then interpolates between the last two steps.
+ *
+ * A frame is only handed over once the previous one has finished. If the event dispatch thread is
+ * still busy (a modal dialog, a long event) the frame is dropped and counted instead of queuing up
+ * work, and if the loop falls more than a frame behind it resynchronizes instead of trying to catch up.
+ */
+public class GameLoop implements Runnable {
+    private static final int TARGET_FPS = 60;                           // Frames per second to aim for
+    private static final long FRAME_NANOS = 1_000_000_000L / TARGET_FPS;
+    private static final long SPIN_THRESHOLD_NANOS = 1_000_000L;        // Spin instead of parking for the last millisecond
+    private static final int UPDATES_PER_SECOND = 120;                  // Rate of the fixed simulation step
+    private static final long UPDATE_NANOS = 1_000_000_000L / UPDATES_PER_SECOND;
+    private static final long MAX_FRAME_NANOS = 250_000_000L;           // Cap on simulated time per frame after a stall
+
+    private final Main game;
+    private final AtomicBoolean framePending = new AtomicBoolean(false);
+    private volatile boolean running;
+    private volatile long framesRendered;
+    private volatile long droppedFrames;
+    private Thread thread;
+
+    // Simulation state, only touched on the event dispatch thread
+    private long lastFrameTime = -1;
+    private long accumulatedNanos;
+    private long simulationNanos;
+
+    /**
+     * @param game The game panel whose update and render phases the loop drives.
+     */
+    public GameLoop(Main game) {
+        this.game = game;
+    }
+
+    /**
+     * Starts the loop on its own daemon thread. Does nothing if it is already running.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "game-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the loop after the current frame.
+     */
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        long nextFrameTime = System.nanoTime();
+        while (running) {
+            if (framePending.compareAndSet(false, true)) {
+                SwingUtilities.invokeLater(this::runFrame);
+            } else {
+                droppedFrames++;
+            }
+
+            nextFrameTime += FRAME_NANOS;
+            long behind = System.nanoTime() - nextFrameTime;
+            if (behind > FRAME_NANOS) {
+                // Too far behind to catch up: count the missed frames and restart the schedule
+                droppedFrames += behind / FRAME_NANOS;
+                nextFrameTime = System.nanoTime();
+            }
+            waitUntil(nextFrameTime);
+        }
+    }
+
+    /**
+     * Runs one frame on the event dispatch thread: the fixed update steps that are due, then a
+     * render interpolated between the last two steps.
+     */
+    private void runFrame() {
+        FrameProfiler profiler = game.getFrameProfiler();
+        profiler.beginFrame();
+        try {
+            long now = System.nanoTime();
+            if (lastFrameTime < 0) {
+                lastFrameTime = now;
+                simulationNanos = System.currentTimeMillis() * 1_000_000L;
+            }
+            long elapsed = now - lastFrameTime;
+            lastFrameTime = now;
+            if (elapsed > MAX_FRAME_NANOS) {
+                // Don't simulate a long stall (e.g. a modal dialog) step by step, but keep the
+                // simulation clock in line with the wall clock that dialogs animate with
+                simulationNanos += elapsed - MAX_FRAME_NANOS;
+                elapsed = MAX_FRAME_NANOS;
+            }
+            accumulatedNanos += elapsed;
+
+            while (accumulatedNanos >= UPDATE_NANOS) {
+                simulationNanos += UPDATE_NANOS;
+                game.updateTick(UPDATE_NANOS / 1_000_000_000.0, simulationNanos / 1_000_000L);
+                accumulatedNanos -= UPDATE_NANOS;
+            }
+            game.renderFrame((double) accumulatedNanos / UPDATE_NANOS);
+            framesRendered++;
+        } finally {
+            profiler.endFrame();
+            framePending.set(false);
+        }
+    }
+
+    /**
+     * Sleeps until the given System.nanoTime value, parking for most of the wait and spinning for
+     * the last stretch since parking alone is only accurate to about a millisecond.
+     */
+    private void waitUntil(long deadline) {
+        long remaining;
+        while (running && (remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * @return The number of frames rendered since the loop started.
+     */
+    public long getFramesRendered() {
+        return framesRendered;
+    }
+
+    /**
+     * @return The number of frames dropped because the previous frame was still running or the
+     * loop fell behind its schedule.
+     */
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+}
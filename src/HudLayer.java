@@ -0,0 +1,166 @@
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws the health bar, XP bar and Study Stud count. The bars are rendered into a cached image
+ * that is redrawn only after the character reports a change and the displayed values actually
+ * differ; every other frame just blits the cached image.
+ *
+ * The image is rendered at the scale of the target graphics context (the camera zoom), so text
+ * stays as sharp as when it was drawn directly.
+ */
+public class HudLayer {
+    private static final int BAR_WIDTH = 80;
+    private static final int BAR_HEIGHT = 10;
+    private static final int XP_BAR_OFFSET_Y = 15;
+    private static final int STUD_BAR_OFFSET_X = 125;
+    private static final int STUD_BAR_WIDTH = 100;
+    private static final int WIDTH = STUD_BAR_OFFSET_X + STUD_BAR_WIDTH + 1;    // Includes the 1px borders
+    private static final int HEIGHT = XP_BAR_OFFSET_Y + BAR_HEIGHT + 1;
+    private static final Color STUD_BAR_COLOR = new Color(207, 187, 232);
+    private static final Color STUD_TEXT_COLOR = new Color(154, 82, 241);
+
+    private final Character character;
+    private final Font font;
+    private BufferedImage cache;
+    private double cacheScale;
+    private boolean dirty = true;
+
+    // Values shown in the cached image
+    private int health = -1;
+    private int level = -1;
+    private int levelProgression = -1;
+    private int levelCap = -1;
+    private int studyStudCount = -1;
+
+    /**
+     * @param character The character whose stats are shown. The layer listens to its change notifications.
+     */
+    public HudLayer(Character character) {
+        this.character = character;
+        this.font = FontUtils.loadFont(FontUtils.BUNGEE_REGULAR, 8);
+        character.addChangeListener(e -> dirty = true);
+    }
+
+    /**
+     * Draws the HUD with its top-left corner at the given position.
+     *
+     * @param g Graphics context, with the camera transform applied.
+     * @param x X-coordinate in the context's user space.
+     * @param y Y-coordinate in the context's user space.
+     */
+    public void draw(Graphics2D g, int x, int y) {
+        AffineTransform transform = g.getTransform();
+        double scale = transform.getScaleX();
+        if (scale != cacheScale) {
+            cache = null;
+        }
+        if (cache == null || (dirty && valuesChanged())) {
+            redraw(g, scale);
+        }
+        dirty = false;
+
+        // Blit in device space so the image isn't resampled
+        double deviceX = transform.getScaleX() * x + transform.getShearX() * y + transform.getTranslateX();
+        double deviceY = transform.getShearY() * x + transform.getScaleY() * y + transform.getTranslateY();
+        g.setTransform(new AffineTransform());
+        g.drawImage(cache, (int) Math.round(deviceX), (int) Math.round(deviceY), null);
+        g.setTransform(transform);
+    }
+
+    /**
+     * Reads the character's current values and reports whether any of them differ from the ones
+     * in the cached image.
+     */
+    private boolean valuesChanged() {
+        int newStudyStudCount = countStudyStuds();
+        boolean changed = health != character.getHealth()
+                || level != character.getLevel()
+                || levelProgression != character.getLevelProgression()
+                || levelCap != character.getLevelCap()
+                || studyStudCount != newStudyStudCount;
+        health = character.getHealth();
+        level = character.getLevel();
+        levelProgression = character.getLevelProgression();
+        levelCap = character.getLevelCap();
+        studyStudCount = newStudyStudCount;
+        return changed;
+    }
+
+    private void redraw(Graphics2D target, double scale) {
+        if (cache == null) {
+            valuesChanged();
+            cache = ImageUtils.createCompatibleImage((int) Math.ceil(WIDTH * scale), (int) Math.ceil(HEIGHT * scale),
+                    Transparency.TRANSLUCENT);
+            cacheScale = scale;
+        }
+        Graphics2D g = cache.createGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, cache.getWidth(), cache.getHeight());
+        g.setComposite(AlphaComposite.SrcOver);
+        g.setRenderingHints(target.getRenderingHints());
+        g.scale(scale, scale);
+        g.setFont(font);
+        drawXP(g);
+        drawHealth(g);
+        drawStudyStudCount(g);
+        g.dispose();
+    }
+
+    private void drawHealth(Graphics2D g) {
+        // Bar background, current health (max health is 100) and border
+        g.setColor(Color.GRAY);
+        g.fillRect(0, 0, BAR_WIDTH, BAR_HEIGHT);
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, (int) (BAR_WIDTH * (health / 100f)), BAR_HEIGHT);
+        g.setColor(Color.BLACK);
+        g.drawRect(0, 0, BAR_WIDTH, BAR_HEIGHT);
+
+        g.setColor(Color.WHITE);
+        String healthText = health + "/100";
+        FontMetrics fm = g.getFontMetrics();
+        int textX = (BAR_WIDTH - fm.stringWidth(healthText)) / 2;
+        int textY = ((BAR_HEIGHT - fm.getHeight()) / 2) + fm.getAscent();
+        g.drawString(healthText, textX, textY);
+    }
+
+    private void drawXP(Graphics2D g) {
+        // Bar background, progression towards the next level and border
+        g.setColor(Color.GRAY);
+        g.fillRect(0, XP_BAR_OFFSET_Y, BAR_WIDTH, BAR_HEIGHT);
+        g.setColor(Color.BLUE);
+        g.fillRect(0, XP_BAR_OFFSET_Y, (int) (BAR_WIDTH * ((float) levelProgression / levelCap)), BAR_HEIGHT);
+        g.setColor(Color.BLACK);
+        g.drawRect(0, XP_BAR_OFFSET_Y, BAR_WIDTH, BAR_HEIGHT);
+
+        g.setColor(Color.WHITE);
+        String xpText = "Level " + level + " (" + levelProgression + "/" + levelCap + ")";
+        FontMetrics fm = g.getFontMetrics();
+        int textX = (BAR_WIDTH - fm.stringWidth(xpText)) / 2;
+        int textY = XP_BAR_OFFSET_Y + ((BAR_HEIGHT - fm.getHeight()) / 2) + fm.getAscent();
+        g.drawString(xpText, textX, textY);
+    }
+
+    private void drawStudyStudCount(Graphics2D g) {
+        g.setColor(STUD_BAR_COLOR);
+        g.fillRect(STUD_BAR_OFFSET_X, 0, STUD_BAR_WIDTH, BAR_HEIGHT);
+        g.setColor(Color.BLACK);
+        g.drawRect(STUD_BAR_OFFSET_X, 0, STUD_BAR_WIDTH, BAR_HEIGHT);
+
+        g.setColor(STUD_TEXT_COLOR);
+        String studyStudText = "Study Stud Count: " + studyStudCount;
+        FontMetrics fm = g.getFontMetrics();
+        int textY = ((BAR_HEIGHT - fm.getHeight()) / 2) + fm.getAscent();
+        g.drawString(studyStudText, STUD_BAR_OFFSET_X + 5, textY);
+    }
+
+    private int countStudyStuds() {
+        for (Item item : character.getInventory()) {
+            if (item.getName().equalsIgnoreCase("Study Stud")) {
+                return item.getQuantity();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,74 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+public class ImageUtils {
+
+    /**
+     * Copies an image into a new image laid out the way the display expects, so Java2D can use its
+     * accelerated blit paths. Subimages of decoded PNGs usually can't be accelerated because they
+     * share the raster of the full sheet and may use any pixel format.
+     *
+     * @param source The image to copy, typically a tile cut out of a tileset sheet.
+     * @return A compatible image with the smallest transparency mode that represents the source.
+     */
+    public static BufferedImage toCompatibleImage(BufferedImage source) {
+        int transparency = detectTransparency(source);
+        BufferedImage compatible = createCompatibleImage(source.getWidth(), source.getHeight(), transparency);
+
+        Graphics2D g = compatible.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(source, 0, 0, null);
+        g.dispose();
+        return compatible;
+    }
+
+    /**
+     * Creates an empty image compatible with the default screen, or a plain ARGB/RGB image when
+     * running headless.
+     *
+     * @param width        Width of the image in pixels.
+     * @param height       Height of the image in pixels.
+     * @param transparency One of {@link Transparency#OPAQUE}, {@link Transparency#BITMASK} or
+     *                     {@link Transparency#TRANSLUCENT}.
+     * @return The new image.
+     */
+    public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return config.createCompatibleImage(width, height, transparency);
+        }
+        int type = transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        return new BufferedImage(width, height, type);
+    }
+
+    /**
+     * Scans the alpha channel of an image to find the transparency mode it actually needs.
+     *
+     * @param image The image to inspect.
+     * @return {@link Transparency#OPAQUE} if every pixel is opaque, {@link Transparency#BITMASK} if
+     * pixels are only fully opaque or fully transparent, otherwise {@link Transparency#TRANSLUCENT}.
+     */
+    public static int detectTransparency(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) {
+            return Transparency.OPAQUE;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] row = new int[width];
+        boolean opaque = true;
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            for (int argb : row) {
+                int alpha = argb >>> 24;
+                if (alpha != 0xFF) {
+                    if (alpha != 0) {
+                        return Transparency.TRANSLUCENT;
+                    }
+                    opaque = false;
+                }
+            }
+        }
+        return opaque ? Transparency.OPAQUE : Transparency.BITMASK;
+    }
+}
@@ -1,5 +1,7 @@
 import javax.swing.*;
 import java.awt.event.ActionEvent;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
 import java.awt.event.KeyEvent;
 
 /**
@@ -7,26 +9,33 @@ import java.awt.event.KeyEvent;
  * Configures key bindings for moving a character up, down, left, and right.
  */
 public class InputHandler {
-    private static final int MOVE_DISTANCE = 10;  // Distance the character moves with each key press
     private final Character character;            // The character object to control
-    private final JPanel panel;                   // The panel to repaint after movement
+    private final Main panel;                     // The game panel the key bindings are attached to
+    private boolean upHeld, downHeld, leftHeld, rightHeld;  // Movement keys currently held down
 
     /**
      * Constructs an InputHandler for a character in a given panel.
      *
      * @param character The character to be controlled by the input handler.
-     * @param panel     The JPanel on which the character is displayed.
+     * @param panel     The game panel on which the character is displayed.
      */
-    public InputHandler(Character character, JPanel panel) {
+    public InputHandler(Character character, Main panel) {
         this.character = character;
         this.panel = panel;
         setupKeyBindings();
+        // Key releases go to whatever has the focus, e.g. a dialog opened mid-step, so stop moving when the panel loses it
+        panel.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                clearHeldDirections();
+            }
+        });
     }
 
     /**
      * Configures key bindings for character movement using the WASD keys.
-     * W, A, S, and D keys are mapped to actions that move the character in
-     * the corresponding direction and repaint the panel to reflect changes.
+     * Pressing and releasing W, A, S, and D updates the direction the character
+     * moves in on each fixed update step.
      */
     private void setupKeyBindings() {
         // Set up input and action maps for when the panel is focused
@@ -34,12 +43,22 @@ public class InputHandler {
         ActionMap actionMap = panel.getActionMap();
 
         // Associate key strokes with specific action names
-        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_W, 0, false), "move_up");
-        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_S, 0, false), "move_down");
-        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_A, 0, false), "move_left");
-        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_D, 0, false), "move_right");
         inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_I, 0, false), "open_inventory");
         inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_U, 0, false), "use_item");
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0, false), "toggle_profiler");
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_F4, 0, false), "toggle_low_res");
+        actionMap.put("toggle_profiler", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                panel.toggleProfilerOverlay();
+            }
+        });
+        actionMap.put("toggle_low_res", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                panel.toggleLowResRendering();
+            }
+        });
         // Map each action name to an action that moves the character
         actionMap.put("use_item", new AbstractAction() {
             @Override
@@ -61,37 +80,62 @@ public class InputHandler {
                 character.displayInventory();               // Refresh panel display after movement
             }
         });
-        // Map each action name to an action that moves the character using the same run animation
-        actionMap.put("move_up", new AbstractAction() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                character.move(0, -MOVE_DISTANCE);
-                panel.repaint(); // Repaint to reflect new position and frame
-            }
-        });
+        // Movement keys only record which directions are held; the character moves on each update step
+        bindMovementKey(inputMap, actionMap, KeyEvent.VK_W, "up");
+        bindMovementKey(inputMap, actionMap, KeyEvent.VK_S, "down");
+        bindMovementKey(inputMap, actionMap, KeyEvent.VK_A, "left");
+        bindMovementKey(inputMap, actionMap, KeyEvent.VK_D, "right");
+    }
 
-        actionMap.put("move_down", new AbstractAction() {
+    /**
+     * Binds the press and release of a movement key to updating the held direction.
+     *
+     * @param inputMap  The input map of the panel.
+     * @param actionMap The action map of the panel.
+     * @param keyCode   The key to bind.
+     * @param direction One of "up", "down", "left" or "right".
+     */
+    private void bindMovementKey(InputMap inputMap, ActionMap actionMap, int keyCode, String direction) {
+        inputMap.put(KeyStroke.getKeyStroke(keyCode, 0, false), "move_" + direction);
+        inputMap.put(KeyStroke.getKeyStroke(keyCode, 0, true), "stop_" + direction);
+        actionMap.put("move_" + direction, new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                character.move(0, MOVE_DISTANCE);
-                panel.repaint();
+                setDirectionHeld(direction, true);
             }
         });
-
-        actionMap.put("move_left", new AbstractAction() {
+        actionMap.put("stop_" + direction, new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                character.move(-MOVE_DISTANCE, 0);
-                panel.repaint();
+                setDirectionHeld(direction, false);
             }
         });
+    }
 
-        actionMap.put("move_right", new AbstractAction() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                character.move(MOVE_DISTANCE, 0);
-                panel.repaint();
-            }
-        });
+    /**
+     * Records whether a direction key is held and passes the combined direction to the character.
+     */
+    private void setDirectionHeld(String direction, boolean held) {
+        switch (direction) {
+            case "up" -> upHeld = held;
+            case "down" -> downHeld = held;
+            case "left" -> leftHeld = held;
+            case "right" -> rightHeld = held;
+        }
+        int directionX = (rightHeld ? 1 : 0) - (leftHeld ? 1 : 0);
+        int directionY = (downHeld ? 1 : 0) - (upHeld ? 1 : 0);
+        character.setMovementDirection(directionX, directionY);
+    }
+
+    /**
+     * Forgets all held movement keys and stops the character. Called before a dialog takes the
+     * keyboard, since the panel won't see the releases of keys held at that moment.
+     */
+    public void clearHeldDirections() {
+        upHeld = false;
+        downHeld = false;
+        leftHeld = false;
+        rightHeld = false;
+        character.setMovementDirection(0, 0);
     }
 }
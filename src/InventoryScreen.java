@@ -77,6 +77,7 @@ public class InventoryScreen extends JDialog {
                         return;
                 }
                 selectedItem.setQuantity(selectedItem.getQuantity() - 1);
+                character.notifyInventoryChanged();
                 if (selectedItem.getQuantity() <= 0) {
                     character.removeItem(selectedItem);
                     listModel.removeElement(selectedItem);
@@ -0,0 +1,285 @@
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Decodes the {@code <data>} element of a tile layer into an array of tile IDs, stored row by row.
+ * The text is read in the chunks the StAX reader delivers, so a layer is never held as one string.
+ *
+ * Supports Tiled's CSV and XML encodings, and base64 either uncompressed or compressed with zlib or
+ * gzip. Base64 data is decoded and inflated as a stream straight into the tile array.
+ */
+public class LayerDataDecoder {
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final long MAX_GID = 0xFFFFFFFFL;   // GIDs are unsigned 32-bit values, flip flags included
+
+    /**
+     * Decodes the data element the reader is positioned on and leaves the reader on its end tag.
+     *
+     * @param reader    A reader on the start tag of a {@code <data>} element.
+     * @param tileCount Number of tiles in the layer (width * height).
+     * @return The tile IDs; missing trailing tiles are 0.
+     * @throws XMLStreamException If the XML or compressed data is broken, or the data uses an
+     *                            unsupported encoding or compression.
+     */
+    public static int[] decode(XMLStreamReader reader, int tileCount) throws XMLStreamException {
+        String encoding = reader.getAttributeValue(null, "encoding");
+        if ("csv".equals(encoding)) {
+            return decodeCsv(reader, tileCount);
+        } else if ("base64".equals(encoding)) {
+            return decodeBase64(reader, tileCount, reader.getAttributeValue(null, "compression"));
+        } else if (encoding == null) {
+            return decodeTileElements(reader, tileCount);
+        }
+        throw new XMLStreamException("Unsupported layer data encoding: " + encoding, reader.getLocation());
+    }
+
+    /**
+     * Decodes comma-separated GIDs without creating intermediate strings.
+     */
+    private static int[] decodeCsv(XMLStreamReader reader, int tileCount) throws XMLStreamException {
+        int[] tileIds = new int[tileCount];
+        int index = 0;
+        long value = 0;
+        boolean inNumber = false;
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                throw new XMLStreamException("Unexpected element in CSV layer data", reader.getLocation());
+            } else if (event != XMLStreamConstants.CHARACTERS && event != XMLStreamConstants.CDATA
+                    && event != XMLStreamConstants.SPACE) {
+                continue;   // Comments and processing instructions
+            }
+            char[] chars = reader.getTextCharacters();
+            for (int i = reader.getTextStart(), end = i + reader.getTextLength(); i < end; i++) {
+                char c = chars[i];
+                if (c >= '0' && c <= '9') {
+                    value = value * 10 + (c - '0');
+                    inNumber = true;
+                    // Checked per digit so a long run of digits can't overflow the accumulator
+                    if (value > MAX_GID) {
+                        throw new XMLStreamException("GID out of range in layer data", reader.getLocation());
+                    }
+                } else if (c == ',') {
+                    index = storeTileId(reader, tileIds, index, value, inNumber);
+                    value = 0;
+                    inNumber = false;
+                } else if (!java.lang.Character.isWhitespace(c)) {
+                    throw new XMLStreamException("Unexpected character '" + c + "' in layer data", reader.getLocation());
+                }
+            }
+        }
+        if (inNumber) {
+            storeTileId(reader, tileIds, index, value, true);
+        }
+        return tileIds;
+    }
+
+    /**
+     * Decodes base64 data holding one little-endian 32-bit GID per tile, optionally compressed.
+     * Unlike CSV, the data must contain exactly one GID per tile.
+     */
+    private static int[] decodeBase64(XMLStreamReader reader, int tileCount, String compression)
+            throws XMLStreamException {
+        Location location = reader.getLocation();
+        if ("zstd".equals(compression)) {
+            throw new XMLStreamException("Unsupported layer data compression: zstd. Save the map with zlib or gzip"
+                    + " compression, or uncompressed, instead", location);
+        }
+        int[] tileIds = new int[tileCount];
+        XmlTextInputStream text = new XmlTextInputStream(reader);
+        try (InputStream in = openDecompressed(Base64.getMimeDecoder().wrap(text), compression, location)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int index = 0;
+            int buffered = 0;   // Bytes in the buffer that don't make up a whole GID yet
+            int read;
+            while ((read = in.read(buffer, buffered, buffer.length - buffered)) != -1) {
+                buffered += read;
+                int end = buffered - buffered % 4;
+                if (index + end / 4 > tileCount) {
+                    throw new XMLStreamException("Layer data has more than " + tileCount + " tiles", location);
+                }
+                for (int i = 0; i < end; i += 4) {
+                    tileIds[index++] = (buffer[i] & 0xFF) | (buffer[i + 1] & 0xFF) << 8
+                            | (buffer[i + 2] & 0xFF) << 16 | (buffer[i + 3] & 0xFF) << 24;
+                }
+                // Keep a partial GID for the next read
+                System.arraycopy(buffer, end, buffer, 0, buffered - end);
+                buffered -= end;
+            }
+            if (index != tileCount || buffered != 0) {
+                throw new XMLStreamException("Layer data has " + index + " tiles, expected " + tileCount, location);
+            }
+        } catch (IOException e) {
+            if (e.getCause() instanceof XMLStreamException xmlException) {
+                throw xmlException;
+            }
+            throw new XMLStreamException("Invalid layer data: " + e.getMessage(), location, e);
+        }
+        text.skipToEnd();
+        return tileIds;
+    }
+
+    private static InputStream openDecompressed(InputStream in, String compression, Location location)
+            throws IOException, XMLStreamException {
+        if (compression == null || compression.isEmpty()) {
+            return in;
+        } else if (compression.equals("zlib")) {
+            return new InflaterInputStream(in);
+        } else if (compression.equals("gzip")) {
+            return new GZIPInputStream(in);
+        }
+        throw new XMLStreamException("Unsupported layer data compression: " + compression, location);
+    }
+
+    /**
+     * Presents the text content of the current element as a stream of bytes, one per character, so
+     * base64 text can be decoded without collecting it into a string. Ends at the element's end tag.
+     */
+    private static class XmlTextInputStream extends InputStream {
+        private final XMLStreamReader reader;
+        private char[] chars;
+        private int position;
+        private int end;
+        private boolean ended;
+
+        private XmlTextInputStream(XMLStreamReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public int read() throws IOException {
+            // The base64 decoder reads its input a byte at a time
+            while (position == end) {
+                if (!nextChunk()) {
+                    return -1;
+                }
+            }
+            return toByte(chars[position++]);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (position == end) {
+                if (!nextChunk()) {
+                    return -1;
+                }
+            }
+            int count = Math.min(len, end - position);
+            for (int i = 0; i < count; i++) {
+                b[off + i] = (byte) toByte(chars[position++]);
+            }
+            return count;
+        }
+
+        /**
+         * Base64 text is ASCII. Anything else would be cut to its low byte and could pass as a
+         * valid digit, so it's reported instead.
+         */
+        private int toByte(char c) throws IOException {
+            if (c > 0x7F) {
+                XMLStreamException e = new XMLStreamException(String.format(
+                        "Unexpected character '%c' (U+%04X) in base64 layer data", c, (int) c), reader.getLocation());
+                throw new IOException(e.getMessage(), e);
+            }
+            return c;
+        }
+
+        /**
+         * Moves to the next text event of the element.
+         *
+         * @return false once the end tag is reached.
+         */
+        private boolean nextChunk() throws IOException {
+            try {
+                while (!ended) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.END_ELEMENT) {
+                        ended = true;
+                    } else if (event == XMLStreamConstants.START_ELEMENT) {
+                        throw new XMLStreamException("Unexpected element in base64 layer data", reader.getLocation());
+                    } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                            || event == XMLStreamConstants.SPACE) {
+                        chars = reader.getTextCharacters();
+                        position = reader.getTextStart();
+                        end = position + reader.getTextLength();
+                        return true;
+                    }
+                }
+                return false;
+            } catch (XMLStreamException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Reads past whatever the decoder left, e.g. trailing whitespace, up to the end tag.
+         */
+        private void skipToEnd() throws XMLStreamException {
+            try {
+                while (nextChunk()) {
+                    position = end;
+                }
+            } catch (IOException e) {
+                throw (XMLStreamException) e.getCause();
+            }
+        }
+
+        @Override
+        public void close() {
+            // The reader belongs to the caller
+        }
+    }
+
+    /**
+     * Decodes the uncompressed XML format, one {@code <tile gid="..."/>} element per tile.
+     */
+    private static int[] decodeTileElements(XMLStreamReader reader, int tileCount) throws XMLStreamException {
+        int[] tileIds = new int[tileCount];
+        int index = 0;
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                String gid = reader.getAttributeValue(null, "gid");
+                long value;
+                try {
+                    value = gid != null ? Long.parseLong(gid) : 0;
+                } catch (NumberFormatException e) {
+                    throw new XMLStreamException("Invalid GID '" + gid + "' in layer data", reader.getLocation(), e);
+                }
+                index = storeTileId(reader, tileIds, index, value, true);
+                XmlStreamUtils.skipElement(reader);
+            }
+        }
+        return tileIds;
+    }
+
+    private static int storeTileId(XMLStreamReader reader, int[] tileIds, int index, long value, boolean inNumber)
+            throws XMLStreamException {
+        if (!inNumber) {
+            throw new XMLStreamException("Empty entry in layer data", reader.getLocation());
+        }
+        if (value < 0 || value > MAX_GID) {
+            throw new XMLStreamException("GID " + value + " out of range in layer data", reader.getLocation());
+        }
+        if (index >= tileIds.length) {
+            throw new XMLStreamException("Layer data has more than " + tileIds.length + " tiles", reader.getLocation());
+        }
+        // GIDs are unsigned 32-bit values; the cast keeps Tiled's flip flags in the high bits
+        tileIds[index] = (int) value;
+        return index + 1;
+    }
+}
@@ -1,5 +1,7 @@
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.awt.geom.AffineTransform;
 import java.io.File;
 import java.io.FileOutputStream;
@@ -9,8 +11,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 import javax.swing.border.Border;
-import javax.xml.parsers.ParserConfigurationException;
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.Clip;
@@ -30,7 +36,6 @@ public class Main extends JPanel {
     private boolean isPaused = false;
     private List<Question> questions;
     private static JFrame gameFrame;
-    private TmxParser tmxParser;
     private int old_x;
     private int old_y;
     private boolean isNpcDialogOpen = false;
@@ -44,6 +49,19 @@ public class Main extends JPanel {
 
     private static final int COOLDOWN_TIME_MS = 90000; // Cooldown period in milliseconds
     private String currentMapFileName;
+    private boolean lowResRendering = false;  // Draw the world at native resolution and upscale it once
+    private final LowResBackbuffer lowResBackbuffer = new LowResBackbuffer();
+    private GameLoop gameLoop;
+    private double renderAlpha = 1.0;         // Interpolation between the last two update steps
+    private final FrameProfiler profiler = new FrameProfiler();
+    private volatile boolean reportWritten = false;  // Set once the frame profile has been written on exit
+    private final MapLoader mapLoader = new MapLoader();      // Parses maps and decodes tilesets on worker threads
+    private final MapPrefetcher mapPrefetcher = new MapPrefetcher(mapLoader);   // Readies the maps reachable from this one
+    private String loadingMapFileName;        // Map a transition is loading, null when none is
+    private long loadingStartTime;            // System.nanoTime when that transition started
+    private final Font loadingFont = FontUtils.loadFont(FontUtils.BUNGEE_REGULAR, 24);
+    private static final long LOADING_OVERLAY_DELAY_NANOS = 150_000_000L;  // Transitions faster than this show no overlay
+    private static final Color LOADING_OVERLAY_COLOR = new Color(0, 0, 0, 128);
 
     public Main() {
         try {
@@ -267,12 +285,15 @@ public class Main extends JPanel {
             String initialMapFilePath = "resources/" + currentMapFileName;
 
             // Parse .tmx file and tileset files to populate models
-            tmxParser = new TmxParser(initialMapFilePath);
-            TmxMapModel mapModel = tmxParser.getMapModel();
-            List<LayerModel> layers = tmxParser.getLayers();
-            List<ObjectModel> objects = tmxParser.getObjects();
-            List<AnimationModel> animations = tmxParser.getAnimations();
-            List<TilesetModel> tilesets = tmxParser.getTilesets();
+            MapLoader.LoadedMap loadedMap = mapLoader.loadAndWait(initialMapFilePath);
+            System.out.println("Loaded " + currentMapFileName + " in " + loadedMap.getTimings());
+            System.out.println("Map cache: " + mapLoader.getMapCache());
+            System.out.println("Tileset image cache: " + TilesetImageCache.getShared());
+            TmxMapModel mapModel = loadedMap.getMapModel();
+            List<LayerModel> layers = loadedMap.getLayers();
+            List<ObjectModel> objects = loadedMap.getObjects();
+            List<AnimationModel> animations = loadedMap.getAnimations();
+            List<TilesetModel> tilesets = loadedMap.getTilesets();
 
             // Initialize MapState for the initial map
             MapState mapState = mapStates.get(currentMapFileName);
@@ -286,13 +307,16 @@ public class Main extends JPanel {
             }
 
             // Initialize the renderer with parsed map data and encountered objects
-            tmxRenderer = new TmxRenderer(mapModel, layers, objects, animations, tilesets, camera, mapState.getEncounteredObjects());
+            tmxRenderer = new TmxRenderer(mapModel, layers, objects, animations, tilesets, camera, mapState.getEncounteredObjects(),
+                    loadedMap.getSheets());
+            mapPrefetcher.prefetchDestinations(objects);
             tmxRenderer.printObjectNames();
 
 
             // Initialize character and camera
             character = new Character("B_witch", 50, 50, 26, 26,tmxRenderer) ;
             camera = new Camera(700, 700,  6.0f, character);
+            tmxRenderer.setCamera(camera);
 
             // Initialize question panel
             questionPanel = new GameQuestionPanel(character, this);
@@ -323,7 +347,7 @@ public class Main extends JPanel {
 
             playBackgroundMusic("resources/2016_ Clement Panchout_ Life is full of Joy.wav");
 
-        } catch (IOException | ParserConfigurationException | SAXException e) {
+        } catch (IOException | SAXException e) {
             System.err.println("Error initializing TmxRenderer: " + e.getMessage());
         }
     }
@@ -336,38 +360,167 @@ public class Main extends JPanel {
 
             AffineTransform oldTransform = g2d.getTransform();
 
-            camera.update(50*50, 50*50);
+            int scale = LowResBackbuffer.integerScaleFor(camera.getZoomLevel());
+            if (lowResRendering && scale > 0) {
+                // Draw the world 1:1 into the backbuffer, then upscale it once
+                Graphics2D worldGraphics = lowResBackbuffer.begin(getWidth(), getHeight(), scale, getBackground());
+                camera.applyTranslation(worldGraphics, renderAlpha);
+                renderWorld(worldGraphics);
+                worldGraphics.dispose();
+                lowResBackbuffer.present(g2d, scale);
+            } else {
+                camera.applyTransform(g2d, renderAlpha);
+                renderWorld(g2d);
+                g2d.setTransform(oldTransform);
+            }
+            // The HUD is drawn on top at screen resolution
+            profiler.begin(FrameProfiler.Phase.HUD);
             camera.applyTransform(g2d);
-            tmxRenderer.render(g);
-            camera.drawXP(g);
-            camera.drawHealth(g);
-            camera.drawStudyStudCount(g);
-            //   character = new Character("resources/rabbit.png",10,10,20,20);
-            character.draw(g); // draw the character on the map
+            camera.drawHud(g2d);
+            profiler.end(FrameProfiler.Phase.HUD);
 
 
             g2d.setTransform(oldTransform);
+            drawLoadingOverlay(g2d);
+            profiler.drawOverlay(g2d, getWidth(), gameLoop);
+        }
+    }
 
+    /**
+     * Draws the map and the character with the camera transform already applied.
+     */
+    private void renderWorld(Graphics2D g) {
+        profiler.begin(FrameProfiler.Phase.TILES);
+        tmxRenderer.renderTileLayers(g);
+        profiler.end(FrameProfiler.Phase.TILES);
+
+        profiler.begin(FrameProfiler.Phase.ANIMATIONS);
+        tmxRenderer.renderAnimations(g);
+        profiler.end(FrameProfiler.Phase.ANIMATIONS);
+
+        profiler.begin(FrameProfiler.Phase.CHARACTER);
+        character.draw(g, renderAlpha); // draw the character on the map
+        profiler.end(FrameProfiler.Phase.CHARACTER);
+    }
 
-            if (!isPaused) {
+    /**
+     * One fixed update step, run by the game loop on the event dispatch thread: moves the
+     * character, advances animations, moves the camera and checks collisions.
+     *
+     * @param deltaSeconds   Length of the update step in seconds.
+     * @param simulationTime Simulation time in milliseconds at the end of this step.
+     */
+    public void updateTick(double deltaSeconds, long simulationTime) {
+        if (tmxRenderer == null) {
+            return;
+        }
+        character.update(deltaSeconds);
+        tmxRenderer.updateAnimations(simulationTime);
+
+        profiler.begin(FrameProfiler.Phase.CAMERA);
+        camera.update(50*50, 50*50);
+        profiler.end(FrameProfiler.Phase.CAMERA);
+
+        if (!isPaused) {
+            profiler.begin(FrameProfiler.Phase.COLLISIONS);
+            // Walls still hold while the next map loads, but nothing new is triggered on the map being left
+            checkCollisions(loadingMapFileName != null);
+            profiler.end(FrameProfiler.Phase.COLLISIONS);
+        }
+    }
+
+    /**
+     * Render phase of a frame, run by the game loop on the event dispatch thread: paints the panel
+     * right away instead of waiting for the repaint manager.
+     *
+     * @param alpha How far the frame is between the previous and the current update step, 0 to 1.
+     */
+    public void renderFrame(double alpha) {
+        renderAlpha = alpha;
+        if (isShowing()) {
+            paintImmediately(0, 0, getWidth(), getHeight());
+        }
+    }
 
-                checkCollisions();
+    /**
+     * Starts the game loop that drives updates and rendering. The frame profile is written to
+     * frame_profile.txt when the game exits.
+     */
+    public void startGameLoop() {
+        if (gameLoop == null) {
+            gameLoop = new GameLoop(this);
+            // Closing the window calls System.exit on the event dispatch thread, which then can't run
+            // anything for the shutdown hook, so write the report before that
+            Window window = SwingUtilities.getWindowAncestor(this);
+            if (window != null) {
+                window.addWindowListener(new WindowAdapter() {
+                    @Override
+                    public void windowClosing(WindowEvent e) {
+                        stopGameLoop();
+                    }
+                });
             }
+            // Other exits, e.g. Ctrl+C, hand the report to the event dispatch thread
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                if (reportWritten) {
+                    return;
+                }
+                FutureTask<Void> stop = new FutureTask<>(this::stopGameLoop, null);
+                SwingUtilities.invokeLater(stop);
+                try {
+                    stop.get(2, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    System.err.println("Could not write the frame profile: " + e);
+                }
+            }));
         }
+        gameLoop.start();
+    }
+
+    /**
+     * Stops the game loop and writes the frame profile and tileset usage, once. Must run on the event
+     * dispatch thread so no frame changes the counters while they are written.
+     */
+    private void stopGameLoop() {
+        if (reportWritten) {
+            return;
+        }
+        reportWritten = true;
+        gameLoop.stop();
+        profiler.writeReport(new File("frame_profile.txt"));
+        if (tmxRenderer != null) {
+            tmxRenderer.printTilesetUsage();
+        }
+    }
+
+    public FrameProfiler getFrameProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Shows or hides the frame profiler overlay.
+     */
+    public void toggleProfilerOverlay() {
+        profiler.toggleOverlay();
+        repaint();
     }
 
     // this check collisions calls the collisiondetectors class check collisions
-    private void checkCollisions() {
+    // With suppressTriggers only walls are checked, so no fight, dialog, pickup or transition starts
+    private void checkCollisions(boolean suppressTriggers) {
         // Only update old_x and old_y before movement, not every time checkCollisions is called
         int previousX = character.getX();
         int previousY = character.getY();
 
-        CollisionDetector.CollisionResult result = collisionDetector.checkCollisions();
+        CollisionDetector.CollisionResult result = suppressTriggers
+                ? collisionDetector.checkWallCollisions()
+                : collisionDetector.checkCollisions();
 
         // Handle enemy collision
         if (result.hasEnemyCollision() && !questionPanel.isQuestionVisible()) {
             System.out.println("---- Main.java CREATING A NEW FIGHT SCREEN ----");
             FightScreen fightScreen = new FightScreen(gameFrame, character, collisionDetector, tmxRenderer, questions, questionPanel);
+            inputHandler.clearHeldDirections();
             fightScreen.setVisible(true);
         }
 
@@ -392,6 +545,7 @@ public class Main extends JPanel {
                 isShopDialogOpen = true;
 
                 ShopScreen shopScreen = new ShopScreen(gameFrame, character, collisionDetector, tmxRenderer, questions, questionPanel);
+                inputHandler.clearHeldDirections();
                 shopScreen.setVisible(true);
 
                 isShopDialogOpen = false; // Reset flag after ShopScreen is closed
@@ -415,6 +569,7 @@ public class Main extends JPanel {
                 isNpcDialogOpen = true;
 
                 NPCScreen npcScreen = new NPCScreen(gameFrame, character, collisionDetector, tmxRenderer, questions, questionPanel);
+                inputHandler.clearHeldDirections();
                 npcScreen.setVisible(true);
 
                 isNpcDialogOpen = false; // Reset flag after NPCScreen is closed
@@ -424,41 +579,103 @@ public class Main extends JPanel {
         }
     }
 
+    /**
+     * Starts a transition to another map. The map is loaded and its renderer built on loader
+     * threads while the current map keeps running; once it is ready, the renderer and collision
+     * detector are swapped on the event dispatch thread and the character is moved to the spawn
+     * point. Does nothing while another transition is loading.
+     *
+     * @param mapFileName The .tmx file in the resources folder.
+     * @param spawnX      X-coordinate to place the character at on the new map.
+     * @param spawnY      Y-coordinate to place the character at on the new map.
+     */
     public void loadMap(String mapFileName, int spawnX, int spawnY) {
+        if (loadingMapFileName != null) {
+            return;
+        }
+        loadingMapFileName = mapFileName;
+        loadingStartTime = System.nanoTime();
+
+        // MapState belongs to the event dispatch thread; the loader only reads the destination's encountered objects
+        MapState mapState = mapStates.computeIfAbsent(mapFileName, MapState::new);
+        Set<String> encounteredObjects = mapState.getEncounteredObjects();
+
+        CompletableFuture<MapLoader.LoadedMap> loaded = mapLoader.load("resources/" + mapFileName);
+        loaded.thenApply(loadedMap -> createRenderer(loadedMap, encounteredObjects))
+                .whenComplete((renderer, error) -> SwingUtilities.invokeLater(
+                        () -> finishMapTransition(mapFileName, spawnX, spawnY, loaded.getNow(null), renderer, error)));
+    }
+
+    /**
+     * Builds the renderer for a loaded map, leaving out the objects that were already encountered.
+     * Runs on a loader thread.
+     */
+    private TmxRenderer createRenderer(MapLoader.LoadedMap loadedMap, Set<String> encounteredObjects) {
+        List<ObjectModel> objects = loadedMap.getObjects();
+        objects.removeIf(obj -> encounteredObjects.contains(obj.getName().toLowerCase()));
+        return new TmxRenderer(loadedMap.getMapModel(), loadedMap.getLayers(), objects, loadedMap.getAnimations(),
+                loadedMap.getTilesets(), camera, encounteredObjects, loadedMap.getSheets());
+    }
+
+    /**
+     * Switches to a map loaded by {@link #loadMap}, or stays on the current one if loading failed.
+     */
+    private void finishMapTransition(String mapFileName, int spawnX, int spawnY, MapLoader.LoadedMap loadedMap,
+                                     TmxRenderer renderer, Throwable error) {
+        loadingMapFileName = null;
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            System.err.println("Error loading new map: " + cause.getMessage());
+            return;
+        }
+        System.out.println("Loaded " + mapFileName + (loadedMap.isCached() ? " from the map cache" : "")
+                + " in " + loadedMap.getTimings() + ", switched after "
+                + (System.nanoTime() - loadingStartTime) / 1_000_000L + " ms");
+        System.out.println("Map cache: " + mapLoader.getMapCache());
+        System.out.println("Tileset image cache: " + TilesetImageCache.getShared());
+
+        // Swap the renderer and collision detector together so no update sees one map's renderer with the other's objects
+        List<ObjectModel> objects = loadedMap.getObjects();
         currentMapFileName = mapFileName;
-        try {
-            // Parse the new .tmx file
-            tmxParser = new TmxParser("resources/" + mapFileName);
-            TmxMapModel mapModel = tmxParser.getMapModel();
-            List<LayerModel> layers = tmxParser.getLayers();
-            List<ObjectModel> objects = tmxParser.getObjects();
-            List<AnimationModel> animations = tmxParser.getAnimations();
-            List<TilesetModel> tilesets = tmxParser.getTilesets();
-
-            // Check if a MapState exists for this map
-            MapState mapState = mapStates.get(mapFileName);
-            if (mapState == null) {
-                mapState = new MapState(mapFileName);
-                mapStates.put(mapFileName, mapState);
-            } else {
-                // Remove encountered objects
-                MapState finalMapState = mapState;
-                objects.removeIf(obj -> finalMapState.getEncounteredObjects().contains(obj.getName().toLowerCase()));
-            }
+        tmxRenderer = renderer;
+        collisionDetector = new CollisionDetector(character, objects, tmxRenderer, this);
+        tmxRenderer.printObjectNames();
 
-            // Update the renderer and collision detector with new map data
-            tmxRenderer = new TmxRenderer(mapModel, layers, objects, animations, tilesets, camera,  mapState.getEncounteredObjects());
-            collisionDetector.updateObjects(objects);
-            tmxRenderer.printObjectNames();
+        // Set character position to spawn point
+        character.setX(spawnX);
+        character.setY(spawnY);
 
-            // Set character position to spawn point
-            character.setX(spawnX);
-            character.setY(spawnY);
+        mapPrefetcher.recordTransition(mapFileName, loadedMap.isCached());
+        mapPrefetcher.prefetchDestinations(objects);
+        System.out.println("Map prefetch: " + mapPrefetcher);
+    }
 
-        } catch (IOException | ParserConfigurationException | SAXException e) {
-            System.err.println("Error loading new map: " + e.getMessage());
+    /**
+     * Dims the screen and shows a loading message while a map transition takes longer than
+     * {@link #LOADING_OVERLAY_DELAY_NANOS}, so quick transitions don't flash.
+     */
+    private void drawLoadingOverlay(Graphics2D g) {
+        if (loadingMapFileName == null || System.nanoTime() - loadingStartTime < LOADING_OVERLAY_DELAY_NANOS) {
+            return;
         }
+        g.setColor(LOADING_OVERLAY_COLOR);
+        g.fillRect(0, 0, getWidth(), getHeight());
+        g.setFont(loadingFont);
+        g.setColor(Color.WHITE);
+        String text = "Loading...";
+        FontMetrics fm = g.getFontMetrics();
+        g.drawString(text, (getWidth() - fm.stringWidth(text)) / 2, (getHeight() - fm.getHeight()) / 2 + fm.getAscent());
+    }
+
+    /**
+     * Switches between drawing the world through the zoomed transform and drawing it into a
+     * native-resolution backbuffer that is upscaled in one pass.
+     */
+    public void toggleLowResRendering() {
+        lowResRendering = !lowResRendering;
+        repaint();
     }
+
     public MapState getCurrentMapState() {
         return mapStates.get(currentMapFileName);
     }
@@ -489,6 +706,8 @@ public class Main extends JPanel {
 
 
     public static void main(String[] args) {
+        // Parse the fonts once up front instead of when the first screen needs them
+        FontUtils.preloadFonts(true, FontUtils.BUNGEE_REGULAR, FontUtils.RUBIK_MONO_ONE_REGULAR);
         SwingUtilities.invokeLater(() -> {
             gameFrame = new JFrame("Go Study!");
             Main mainPanel = new Main();
@@ -499,9 +718,8 @@ public class Main extends JPanel {
             gameFrame.setVisible(true);
             mainPanel.requestFocusInWindow();
 
-            // Timer to refresh the display, simulating animation
-            Timer timer = new Timer(16, e -> mainPanel.repaint()); // roughly 60 FPS
-            timer.start();
+            // Dedicated game loop thread for updates and rendering, roughly 60 FPS
+            mainPanel.startGameLoop();
         });
     }
 
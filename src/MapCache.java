@@ -0,0 +1,94 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps recently parsed maps so moving back and forth between maps doesn't parse the same files
+ * again. Entries are looked up by the canonical path of the .tmx file and dropped once that file or
+ * one of its tilesets changes on disk. At most a fixed number of maps is kept, evicting the least
+ * recently used first.
+ *
+ * Safe to use from any thread.
+ */
+public class MapCache {
+    private static final int DEFAULT_MAX_MAPS = 16;    // Default number of parsed maps to keep
+
+    private final LinkedHashMap<String, ParsedMap> maps;
+    private long hits;
+    private long misses;
+
+    public MapCache() {
+        this(DEFAULT_MAX_MAPS);
+    }
+
+    /**
+     * @param maxMaps Maximum number of parsed maps to keep.
+     */
+    public MapCache(int maxMaps) {
+        this.maps = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ParsedMap> eldest) {
+                return size() > maxMaps;
+            }
+        };
+    }
+
+    /**
+     * Returns the parsed map for a .tmx file if it is cached and none of its files changed.
+     *
+     * @param tmxFilePath Path to the .tmx file.
+     * @return The parsed map, or null if it has to be parsed.
+     * @throws IOException If the path can't be resolved.
+     */
+    public synchronized ParsedMap get(String tmxFilePath) throws IOException {
+        String key = new File(tmxFilePath).getCanonicalPath();
+        ParsedMap map = maps.get(key);
+        if (map != null && !map.isUpToDate()) {
+            maps.remove(key);
+            map = null;
+        }
+        if (map != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return map;
+    }
+
+    /**
+     * Returns whether an up-to-date parsed map for a .tmx file is cached, without counting a hit or
+     * miss.
+     *
+     * @param tmxFilePath Path to the .tmx file.
+     * @throws IOException If the path can't be resolved.
+     */
+    public synchronized boolean contains(String tmxFilePath) throws IOException {
+        ParsedMap map = maps.get(new File(tmxFilePath).getCanonicalPath());
+        return map != null && map.isUpToDate();
+    }
+
+    /**
+     * Adds a freshly parsed map, replacing any older entry for the same file.
+     */
+    public synchronized void put(ParsedMap map) {
+        maps.put(map.getPath(), map);
+    }
+
+    public synchronized void clear() {
+        maps.clear();
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return maps.size() + " maps, " + hits + " hits, " + misses + " misses";
+    }
+}
@@ -0,0 +1,375 @@
+import models.AnimationModel;
+import models.LayerModel;
+import models.ObjectModel;
+import models.TilesetModel;
+import models.TmxMapModel;
+import org.xml.sax.SAXException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loads maps on a pool of worker threads. The .tmx file is parsed first; then every tileset's .tsx
+ * file is parsed and its image decoded, each tileset in parallel with the others. When all of them
+ * are done the results are collected into a {@link LoadedMap} that holds everything a
+ * {@link TmxRenderer} needs.
+ *
+ * Parsed maps are kept in a {@link MapCache}, so going back to a map skips the parsing.
+ *
+ * Each load records how long every stage took so slow maps can be traced to parsing or decoding.
+ */
+public class MapLoader {
+    private static final String TILESET_PATH = "resources/";   // Where TilesetParser looks for .tsx files
+
+    private final ExecutorService executor;
+    private final MapCache mapCache = new MapCache();
+
+    /**
+     * Creates a loader with one worker thread per available processor.
+     */
+    public MapLoader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads Number of worker threads.
+     */
+    public MapLoader(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "map-loader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts loading a map in the background. A map that was parsed before and whose files haven't
+     * changed comes from the {@link MapCache}, so only its tileset images are looked up.
+     *
+     * @param tmxFilePath Path to the .tmx file.
+     * @return A future completed with the loaded map, or exceptionally if a file can't be read or parsed.
+     */
+    public CompletableFuture<LoadedMap> load(String tmxFilePath) {
+        long start = System.nanoTime();
+        StageTimings timings = new StageTimings();
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return mapCache.get(tmxFilePath);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor).thenCompose(cached -> cached != null
+                ? CompletableFuture.supplyAsync(() -> loadCached(cached, timings, start), executor)
+                : parse(tmxFilePath, timings, start));
+    }
+
+    /**
+     * Builds a loaded map from a cached one; the tileset images normally come from the shared image cache.
+     */
+    private LoadedMap loadCached(ParsedMap parsedMap, StageTimings timings, long start) {
+        long stageStart = System.nanoTime();
+        List<TilesetSheet> loadedSheets = new ArrayList<>();
+        for (TilesetModel tileset : parsedMap.getTilesets()) {
+            TilesetSheet sheet = loadSheet(tileset);
+            if (sheet != null) {
+                loadedSheets.add(sheet);
+            }
+        }
+        timings.decodeNanos.add(System.nanoTime() - stageStart);
+        timings.totalNanos = System.nanoTime() - start;
+        return new LoadedMap(parsedMap.getPath(), parsedMap, loadedSheets, timings, true);
+    }
+
+    /**
+     * Parses a map and its tilesets and adds the result to the map cache.
+     */
+    private CompletableFuture<LoadedMap> parse(String tmxFilePath, StageTimings timings, long start) {
+        // Modification times are taken before parsing, so a file changed while it is read looks stale next time
+        long tmxLastModified = new File(tmxFilePath).lastModified();
+        Map<String, Long> tilesetLastModified = new ConcurrentHashMap<>();
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return parseTmx(tmxFilePath, timings);
+            } catch (IOException | SAXException e) {
+                throw new CompletionException(e);
+            }
+        }, executor).thenCompose(parser -> {
+            // Fan out: parse each tileset, then decode its image, independently of the others
+            List<CompletableFuture<TilesetParser>> tilesetParsers = new ArrayList<>();
+            List<CompletableFuture<TilesetSheet>> sheets = new ArrayList<>();
+            for (TilesetModel tileset : parser.getTilesets()) {
+                CompletableFuture<TilesetParser> tilesetParser = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return parseTileset(tileset, tilesetLastModified, timings);
+                    } catch (IOException | SAXException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor);
+                tilesetParsers.add(tilesetParser);
+                sheets.add(tilesetParser.thenApplyAsync(parsed -> {
+                    long stageStart = System.nanoTime();
+                    try {
+                        return loadSheet(tileset);
+                    } finally {
+                        timings.decodeNanos.add(System.nanoTime() - stageStart);
+                    }
+                }, executor));
+            }
+
+            List<CompletableFuture<?>> stages = new ArrayList<>(tilesetParsers);
+            stages.addAll(sheets);
+            return CompletableFuture.allOf(stages.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+                long stageStart = System.nanoTime();
+                List<TilesetParser> parsers = new ArrayList<>();
+                for (CompletableFuture<TilesetParser> tilesetParser : tilesetParsers) {
+                    parsers.add(tilesetParser.join());
+                }
+
+                List<TilesetSheet> loadedSheets = new ArrayList<>();
+                for (CompletableFuture<TilesetSheet> sheet : sheets) {
+                    if (sheet.join() != null) {
+                        loadedSheets.add(sheet.join());
+                    }
+                }
+                ParsedMap parsedMap;
+                try {
+                    parsedMap = cacheParsedMap(tmxFilePath, tmxLastModified, tilesetLastModified, parser, parsers);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+                timings.assembleNanos = System.nanoTime() - stageStart;
+                timings.totalNanos = System.nanoTime() - start;
+                return new LoadedMap(parsedMap.getPath(), parsedMap, loadedSheets, timings, false);
+            });
+        });
+    }
+
+    /**
+     * Parses a map into the map cache on the calling thread, without decoding its tileset images.
+     * Meant for background work that can be cancelled: the thread's interrupt flag is checked
+     * between files.
+     *
+     * @param tmxFilePath Path to the .tmx file.
+     * @return The parsed map, from the cache if it was already there.
+     * @throws IOException                  If a file can't be read.
+     * @throws SAXException                 If an error occurs during XML parsing.
+     * @throws InterruptedException         If the thread was interrupted; nothing is cached then.
+     */
+    public ParsedMap preload(String tmxFilePath)
+            throws IOException, SAXException, InterruptedException {
+        ParsedMap cached = mapCache.get(tmxFilePath);
+        if (cached != null) {
+            return cached;
+        }
+        StageTimings timings = new StageTimings();
+        long tmxLastModified = new File(tmxFilePath).lastModified();
+        Map<String, Long> tilesetLastModified = new HashMap<>();
+
+        TmxParser parser = parseTmx(tmxFilePath, timings);
+        List<TilesetParser> parsers = new ArrayList<>();
+        for (TilesetModel tileset : parser.getTilesets()) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException("Preloading " + tmxFilePath + " was cancelled");
+            }
+            parsers.add(parseTileset(tileset, tilesetLastModified, timings));
+        }
+        return cacheParsedMap(tmxFilePath, tmxLastModified, tilesetLastModified, parser, parsers);
+    }
+
+    private static TmxParser parseTmx(String tmxFilePath, StageTimings timings)
+            throws IOException, SAXException {
+        long stageStart = System.nanoTime();
+        TmxParser parser = new TmxParser(tmxFilePath, false);
+        timings.tmxNanos = System.nanoTime() - stageStart;
+        return parser;
+    }
+
+    /**
+     * Parses one tileset's .tsx file into its model, recording the file's modification time first.
+     */
+    private static TilesetParser parseTileset(TilesetModel tileset, Map<String, Long> tilesetLastModified,
+                                              StageTimings timings)
+            throws IOException, SAXException {
+        long stageStart = System.nanoTime();
+        try {
+            String tilesetPath = TILESET_PATH + tileset.getTilesetSource();
+            tilesetLastModified.put(tilesetPath, new File(tilesetPath).lastModified());
+            return new TilesetParser(tileset.getTilesetSource(), tileset);
+        } finally {
+            timings.tsxNanos.add(System.nanoTime() - stageStart);
+        }
+    }
+
+    private ParsedMap cacheParsedMap(String tmxFilePath, long tmxLastModified, Map<String, Long> tilesetLastModified,
+                                     TmxParser parser, List<TilesetParser> tilesetParsers) throws IOException {
+        parser.completeTilesets(tilesetParsers);
+        ParsedMap parsedMap = new ParsedMap(new File(tmxFilePath).getCanonicalPath(), tmxLastModified,
+                tilesetLastModified, parser);
+        mapCache.put(parsedMap);
+        return parsedMap;
+    }
+
+    private static TilesetSheet loadSheet(TilesetModel tileset) {
+        try {
+            return TilesetSheet.load(tileset);
+        } catch (IOException e) {
+            // A missing or broken image leaves the tileset blank, as when the renderer loads it
+            System.err.println("Error loading tileset image: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return The cache of parsed maps this loader fills and reads from.
+     */
+    public MapCache getMapCache() {
+        return mapCache;
+    }
+
+    /**
+     * Loads a map and waits for it, rethrowing the exception that stopped the load.
+     *
+     * @param tmxFilePath Path to the .tmx file.
+     * @return The loaded map.
+     * @throws IOException                  If a file can't be read.
+     * @throws SAXException                 If an error occurs during XML parsing.
+     */
+    public LoadedMap loadAndWait(String tmxFilePath) throws IOException, SAXException {
+        try {
+            return load(tmxFilePath).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading " + tmxFilePath, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            } else if (cause instanceof SAXException saxException) {
+                throw saxException;
+            } else if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Error loading " + tmxFilePath, cause);
+        }
+    }
+
+    /**
+     * A parsed map with its tileset images decoded. The map model, layers and tilesets may be shared
+     * with other loads of the same map and must not be changed; the objects belong to this load.
+     */
+    public static class LoadedMap {
+        private final String path;
+        private final ParsedMap parsedMap;
+        private final List<ObjectModel> objects;
+        private final List<TilesetSheet> sheets;
+        private final StageTimings timings;
+        private final boolean cached;
+
+        private LoadedMap(String path, ParsedMap parsedMap, List<TilesetSheet> sheets, StageTimings timings, boolean cached) {
+            this.path = path;
+            this.parsedMap = parsedMap;
+            this.objects = parsedMap.copyObjects();
+            this.sheets = sheets;
+            this.timings = timings;
+            this.cached = cached;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public TmxMapModel getMapModel() {
+            return parsedMap.getMapModel();
+        }
+
+        public List<LayerModel> getLayers() {
+            return parsedMap.getLayers();
+        }
+
+        /**
+         * @return This load's own copies of the map's objects, in a list the caller may change.
+         */
+        public List<ObjectModel> getObjects() {
+            return objects;
+        }
+
+        public List<AnimationModel> getAnimations() {
+            return parsedMap.getAnimations();
+        }
+
+        public List<TilesetModel> getTilesets() {
+            return parsedMap.getTilesets();
+        }
+
+        /**
+         * @return The decoded tileset images, to pass to the {@link TmxRenderer}.
+         */
+        public List<TilesetSheet> getSheets() {
+            return sheets;
+        }
+
+        public StageTimings getTimings() {
+            return timings;
+        }
+
+        /**
+         * @return true if the map came from the map cache instead of being parsed.
+         */
+        public boolean isCached() {
+            return cached;
+        }
+    }
+
+    /**
+     * How long each stage of a load took. Tileset parsing and image decoding run in parallel, so
+     * their times are summed over all tilesets and can add up to more than the total.
+     */
+    public static class StageTimings {
+        private volatile long tmxNanos;
+        private final LongAdder tsxNanos = new LongAdder();
+        private final LongAdder decodeNanos = new LongAdder();
+        private volatile long assembleNanos;
+        private volatile long totalNanos;
+
+        public long getTmxMillis() {
+            return tmxNanos / 1_000_000L;
+        }
+
+        public long getTsxMillis() {
+            return tsxNanos.sum() / 1_000_000L;
+        }
+
+        public long getDecodeMillis() {
+            return decodeNanos.sum() / 1_000_000L;
+        }
+
+        public long getAssembleMillis() {
+            return assembleNanos / 1_000_000L;
+        }
+
+        public long getTotalMillis() {
+            return totalNanos / 1_000_000L;
+        }
+
+        @Override
+        public String toString() {
+            return getTotalMillis() + " ms (tmx " + getTmxMillis() + " ms, tsx " + getTsxMillis()
+                    + " ms, png " + getDecodeMillis() + " ms summed over threads, assemble " + getAssembleMillis() + " ms)";
+        }
+    }
+}
@@ -0,0 +1,178 @@
+import models.ObjectModel;
+import models.ObjectPropertiesModel;
+import models.TilesetModel;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gets the maps reachable from the current one ready before the player walks through a door. After a
+ * map loads, the destinations of its transition objects are parsed into the {@link MapCache} and
+ * their tileset images decoded into the shared {@link TilesetImageCache}, one map at a time on a
+ * low-priority background thread.
+ *
+ * Image decoding is limited to a budget per map load and to the room left in the image cache, so
+ * prefetching never evicts the images of the map being played. Prefetches for maps that are no
+ * longer reachable are cancelled when the next map loads.
+ *
+ * A transition only counts as a prefetch hit if the prefetcher parsed its destination; maps that are
+ * cached because the player was there before are counted as revisits instead.
+ */
+public class MapPrefetcher {
+    private static final long DEFAULT_IMAGE_BUDGET = 32L * 1024 * 1024;    // Default bytes of images to decode per map load
+
+    private final MapLoader mapLoader;
+    private final long imageBudget;
+    private final ExecutorService executor;
+    private final Map<String, Future<?>> pending = new HashMap<>();   // Destination map file name -> prefetch
+    private final Set<String> prefetched = new HashSet<>();   // Map file names parsed here and not visited since
+    private long transitions;
+    private long hits;
+    private long revisits;
+    private long cancelled;
+    private final AtomicLong skippedBytes = new AtomicLong();
+
+    /**
+     * @param mapLoader The loader whose map cache is filled.
+     */
+    public MapPrefetcher(MapLoader mapLoader) {
+        this(mapLoader, DEFAULT_IMAGE_BUDGET);
+    }
+
+    /**
+     * @param mapLoader   The loader whose map cache is filled.
+     * @param imageBudget Bytes of tileset images, as charged by the image cache, that may be decoded
+     *                    for the destinations of one map.
+     */
+    public MapPrefetcher(MapLoader mapLoader, long imageBudget) {
+        this.mapLoader = mapLoader;
+        this.imageBudget = imageBudget;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "map-prefetcher");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts prefetching the destinations of a map's transition objects, and cancels prefetches for
+     * any other maps that haven't finished.
+     *
+     * @param objects The objects of the map that was just loaded.
+     */
+    public synchronized void prefetchDestinations(Collection<ObjectModel> objects) {
+        Set<String> destinations = new LinkedHashSet<>();
+        for (ObjectModel object : objects) {
+            String destination = getDestinationMap(object);
+            if (destination != null) {
+                destinations.add(destination);
+            }
+        }
+
+        Iterator<Map.Entry<String, Future<?>>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Future<?>> entry = iterator.next();
+            if (entry.getValue().isDone()) {
+                iterator.remove();
+            } else if (!destinations.contains(entry.getKey())) {
+                entry.getValue().cancel(true);
+                iterator.remove();
+                cancelled++;
+            }
+        }
+
+        AtomicLong remainingBudget = new AtomicLong(imageBudget);
+        for (String destination : destinations) {
+            if (!pending.containsKey(destination)) {
+                pending.put(destination, executor.submit(() -> prefetch(destination, remainingBudget)));
+            }
+        }
+    }
+
+    private void prefetch(String mapFileName, AtomicLong remainingBudget) {
+        try {
+            String path = "resources/" + mapFileName;
+            boolean alreadyCached = mapLoader.getMapCache().contains(path);
+            ParsedMap parsedMap = mapLoader.preload(path);
+            if (!alreadyCached) {
+                synchronized (this) {
+                    prefetched.add(mapFileName);
+                }
+            }
+            TilesetImageCache imageCache = TilesetImageCache.getShared();
+            for (TilesetModel tileset : parsedMap.getTilesets()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                File imageFile = TilesetSheet.getImageFile(tileset);
+                if (!imageFile.exists() || imageCache.contains(imageFile)) {
+                    continue;
+                }
+                long bytes = TilesetImage.estimateBytes(tileset.getImageWidth(), tileset.getImageHeight());
+                boolean fitsCache = imageCache.getUsedBytes() + bytes <= imageCache.getMaxBytes();
+                if (!fitsCache || remainingBudget.addAndGet(-bytes) < 0) {
+                    skippedBytes.addAndGet(bytes);
+                    continue;   // Left for the transition to decode
+                }
+                imageCache.get(imageFile);
+            }
+        } catch (InterruptedException e) {
+            // Cancelled because the map is no longer reachable
+        } catch (Exception e) {
+            System.err.println("Error prefetching " + mapFileName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records a map transition for the hit rate.
+     *
+     * @param mapFileName The destination map file name.
+     * @param cached      Whether the destination was already in the map cache.
+     */
+    public synchronized void recordTransition(String mapFileName, boolean cached) {
+        transitions++;
+        boolean wasPrefetched = prefetched.remove(mapFileName);
+        if (cached && wasPrefetched) {
+            hits++;
+        } else if (cached) {
+            revisits++;
+        }
+    }
+
+    /**
+     * @return The share of map transitions whose destination the prefetcher had already parsed,
+     *         between 0 and 1.
+     */
+    public synchronized double getHitRate() {
+        return transitions == 0 ? 0 : (double) hits / transitions;
+    }
+
+    /**
+     * @return The destination map file name of a transition object, or null for other objects.
+     */
+    private static String getDestinationMap(ObjectModel object) {
+        for (ObjectPropertiesModel property : object.getProperties()) {
+            if (property.getPropertyName().equalsIgnoreCase("destinationMap")) {
+                return property.getValue();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return hits + "/" + transitions + " transitions prefetched (" + Math.round(getHitRate() * 100) + "%), "
+                + revisits + " cached from an earlier visit, " + cancelled + " prefetches cancelled, " + skippedBytes.get() / 1024 + " KB of images over budget";
+    }
+}
@@ -0,0 +1,91 @@
+import models.AnimationModel;
+import models.LayerModel;
+import models.ObjectModel;
+import models.TilesetModel;
+import models.TmxMapModel;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of parsing a .tmx file and its tilesets, kept by the {@link MapCache}. The map model,
+ * layers and tilesets are shared by every visit and must not be changed; objects change during play,
+ * so each visit gets its own copies through {@link #copyObjects()}.
+ *
+ * The modification times of the files it was parsed from are recorded so a stale entry can be detected.
+ */
+public class ParsedMap {
+    private final String path;
+    private final long tmxLastModified;
+    private final Map<String, Long> tilesetLastModified;   // .tsx path -> modification time
+    private final TmxMapModel mapModel;
+    private final List<LayerModel> layers;
+    private final List<TilesetModel> tilesets;
+    private final List<ObjectModel> objectTemplates;
+    private final List<AnimationModel> animations;
+
+    /**
+     * @param path                The canonical path of the .tmx file.
+     * @param tmxLastModified     Modification time of the .tmx file when parsing started.
+     * @param tilesetLastModified Modification time of each .tsx file when parsing started, by path.
+     * @param parser              A parser whose tilesets have been completed.
+     */
+    public ParsedMap(String path, long tmxLastModified, Map<String, Long> tilesetLastModified, TmxParser parser) {
+        this.path = path;
+        this.tmxLastModified = tmxLastModified;
+        this.tilesetLastModified = Map.copyOf(tilesetLastModified);
+        this.mapModel = parser.getMapModel();
+        this.layers = List.copyOf(parser.getLayers());
+        this.tilesets = List.copyOf(parser.getTilesets());
+        this.objectTemplates = List.copyOf(parser.getObjects());
+        this.animations = List.copyOf(parser.getAnimations());
+    }
+
+    /**
+     * @return true if none of the files the map was parsed from changed since.
+     */
+    public boolean isUpToDate() {
+        if (new File(path).lastModified() != tmxLastModified) {
+            return false;
+        }
+        for (Map.Entry<String, Long> tileset : tilesetLastModified.entrySet()) {
+            if (new File(tileset.getKey()).lastModified() != tileset.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Fresh copies of the map's objects, in a list the caller may change.
+     */
+    public List<ObjectModel> copyObjects() {
+        List<ObjectModel> objects = new ArrayList<>(objectTemplates.size());
+        for (ObjectModel template : objectTemplates) {
+            objects.add(new ObjectModel(template));
+        }
+        return objects;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public TmxMapModel getMapModel() {
+        return mapModel;
+    }
+
+    public List<LayerModel> getLayers() {
+        return layers;
+    }
+
+    public List<TilesetModel> getTilesets() {
+        return tilesets;
+    }
+
+    public List<AnimationModel> getAnimations() {
+        return animations;
+    }
+}
@@ -0,0 +1,94 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches resized copies of tile frames so sprites drawn at a fixed size are scaled once instead of
+ * on every frame. Entries are keyed by (tileId, width, height) and evicted in least recently used
+ * order once the cache holds its maximum number of frames.
+ */
+public class ScaledFrameCache {
+    private static final int DEFAULT_MAX_ENTRIES = 256;    // Default number of scaled frames to keep
+
+    private final int maxEntries;
+    private final Object interpolation;
+    private final LinkedHashMap<Long, BufferedImage> frames;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a cache that scales with nearest-neighbor interpolation, which keeps pixel art crisp.
+     */
+    public ScaledFrameCache() {
+        this(DEFAULT_MAX_ENTRIES, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxEntries    Maximum number of scaled frames to keep.
+     * @param interpolation One of the {@link RenderingHints#KEY_INTERPOLATION} values, used when scaling.
+     */
+    public ScaledFrameCache(int maxEntries, Object interpolation) {
+        this.maxEntries = maxEntries;
+        this.interpolation = interpolation;
+        this.frames = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+                return size() > ScaledFrameCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns a copy of a frame resized to the given size, scaling it on the first request only.
+     *
+     * @param tileId The GID of the frame, used as part of the cache key.
+     * @param frame  The frame at its original size.
+     * @param width  The requested width in pixels.
+     * @param height The requested height in pixels.
+     * @return The scaled frame, or the original frame if it already has the requested size.
+     */
+    public BufferedImage getScaledFrame(int tileId, BufferedImage frame, int width, int height) {
+        if (width <= 0 || height <= 0 || (frame.getWidth() == width && frame.getHeight() == height)) {
+            return frame;
+        }
+        long key = ((long) tileId << 32) | ((long) (width & 0xFFFF) << 16) | (height & 0xFFFF);
+        BufferedImage scaled = frames.get(key);
+        if (scaled != null) {
+            hits++;
+            return scaled;
+        }
+        misses++;
+        scaled = ImageUtils.createCompatibleImage(width, height, frame.getTransparency());
+        Graphics2D g = scaled.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+        g.drawImage(frame, 0, 0, width, height, null);
+        g.dispose();
+        frames.put(key, scaled);
+        return scaled;
+    }
+
+    /**
+     * @return The number of requests served from the cache.
+     */
+    public long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * @return The number of requests that had to scale a frame.
+     */
+    public long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * @return The number of scaled frames currently cached.
+     */
+    public int size() {
+        return frames.size();
+    }
+}
@@ -170,6 +170,7 @@ public class ShopScreen extends JDialog {
         if (studyStud != null && studyStud.getQuantity() >= 3) {
             // Remove Study Studs from inventory
             studyStud.setQuantity(studyStud.getQuantity() - 3);
+            player.notifyInventoryChanged();
             if (studyStud.getQuantity() <= 0) {
                 player.removeItem(studyStud);
             }
@@ -212,6 +213,7 @@ public class ShopScreen extends JDialog {
         if (studyStud != null && studyStud.getQuantity() >= 1) {
             // Decrease the quantity by 1
             studyStud.setQuantity(studyStud.getQuantity() - 1);
+            player.notifyInventoryChanged();
 
             // Remove the item from inventory if quantity is zero
             if (studyStud.getQuantity() <= 0) {
@@ -233,6 +235,7 @@ public class ShopScreen extends JDialog {
         if (studyStud != null && studyStud.getQuantity() >= 3) {
             // Remove Study Studs from inventory
             studyStud.setQuantity(studyStud.getQuantity() - 3);
+            player.notifyInventoryChanged();
             if (studyStud.getQuantity() <= 0) {
                 player.removeItem(studyStud);
                 JOptionPane.showMessageDialog(this, "You bought an apple for 3 Study Studs.");
@@ -0,0 +1,172 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the static tile layers of a map as pre-rendered chunk images. Each chunk covers a fixed
+ * block of tiles and is composited from all layers the first time it becomes visible, so a frame
+ * draws a handful of chunk images instead of every visible tile. Chunks are kept in least recently
+ * used order and evicted once the cache grows past its memory budget.
+ */
+public class TileChunkCache {
+    public static final int CHUNK_SIZE_TILES = 16;                          // Width and height of a chunk in tiles
+    private static final long DEFAULT_MEMORY_BUDGET_BYTES = 32L * 1024 * 1024; // Default budget for chunk images
+    private static final int BYTES_PER_PIXEL = 4;                           // Chunks are stored as ARGB images
+    private static final BufferedImage EMPTY_CHUNK = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+    /**
+     * Draws every static tile of a rectangular tile range into a graphics context.
+     */
+    public interface TileRangePainter {
+        /**
+         * @param g      Graphics context translated so that map pixel coordinates can be used directly.
+         * @param startX First tile column, inclusive.
+         * @param startY First tile row, inclusive.
+         * @param endX   Last tile column, exclusive.
+         * @param endY   Last tile row, exclusive.
+         * @return true if at least one tile was drawn.
+         */
+        boolean paintTiles(Graphics2D g, int startX, int startY, int endX, int endY);
+    }
+
+    private final TileRangePainter painter;
+    private final int mapWidth;
+    private final int mapHeight;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final long memoryBudgetBytes;
+    private final LinkedHashMap<Long, BufferedImage> chunks = new LinkedHashMap<>(64, 0.75f, true);
+    private long usedBytes;
+
+    /**
+     * Creates a chunk cache with the default memory budget.
+     *
+     * @param painter    Callback used to composite the static layers of a chunk.
+     * @param mapWidth   Width of the map in tiles.
+     * @param mapHeight  Height of the map in tiles.
+     * @param tileWidth  Width of a tile in pixels.
+     * @param tileHeight Height of a tile in pixels.
+     */
+    public TileChunkCache(TileRangePainter painter, int mapWidth, int mapHeight, int tileWidth, int tileHeight) {
+        this(painter, mapWidth, mapHeight, tileWidth, tileHeight, DEFAULT_MEMORY_BUDGET_BYTES);
+    }
+
+    /**
+     * Creates a chunk cache.
+     *
+     * @param painter           Callback used to composite the static layers of a chunk.
+     * @param mapWidth          Width of the map in tiles.
+     * @param mapHeight         Height of the map in tiles.
+     * @param tileWidth         Width of a tile in pixels.
+     * @param tileHeight        Height of a tile in pixels.
+     * @param memoryBudgetBytes Maximum number of bytes of chunk images to keep before evicting.
+     */
+    public TileChunkCache(TileRangePainter painter, int mapWidth, int mapHeight, int tileWidth, int tileHeight,
+                          long memoryBudgetBytes) {
+        this.painter = painter;
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+    }
+
+    /**
+     * Draws the chunks that overlap the given tile range, building any chunk that is not cached yet.
+     *
+     * @param g            Graphics context using map pixel coordinates.
+     * @param visibleTiles The visible tile range, in tile coordinates.
+     */
+    public void render(Graphics2D g, Rectangle visibleTiles) {
+        if (visibleTiles.isEmpty()) {
+            return;
+        }
+        int startChunkX = visibleTiles.x / CHUNK_SIZE_TILES;
+        int startChunkY = visibleTiles.y / CHUNK_SIZE_TILES;
+        int endChunkX = (visibleTiles.x + visibleTiles.width - 1) / CHUNK_SIZE_TILES;
+        int endChunkY = (visibleTiles.y + visibleTiles.height - 1) / CHUNK_SIZE_TILES;
+
+        for (int chunkY = startChunkY; chunkY <= endChunkY; chunkY++) {
+            for (int chunkX = startChunkX; chunkX <= endChunkX; chunkX++) {
+                BufferedImage chunk = getChunk(chunkX, chunkY);
+                if (chunk != EMPTY_CHUNK) {
+                    g.drawImage(chunk, chunkX * CHUNK_SIZE_TILES * tileWidth, chunkY * CHUNK_SIZE_TILES * tileHeight, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops every cached chunk so that it is rebuilt the next time it is visible.
+     */
+    public void clear() {
+        chunks.clear();
+        usedBytes = 0;
+    }
+
+    /**
+     * @return The number of chunks currently held by the cache.
+     */
+    public int getCachedChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * @return The number of bytes used by the cached chunk images.
+     */
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    private BufferedImage getChunk(int chunkX, int chunkY) {
+        long key = ((long) chunkX << 32) | (chunkY & 0xFFFFFFFFL);
+        BufferedImage chunk = chunks.get(key);
+        if (chunk == null) {
+            chunk = buildChunk(chunkX, chunkY);
+            chunks.put(key, chunk);
+            usedBytes += sizeOf(chunk);
+            evictOverBudget(key);
+        }
+        return chunk;
+    }
+
+    /**
+     * Composites all static layers of one chunk into a new image.
+     */
+    private BufferedImage buildChunk(int chunkX, int chunkY) {
+        int startX = chunkX * CHUNK_SIZE_TILES;
+        int startY = chunkY * CHUNK_SIZE_TILES;
+        int endX = Math.min(startX + CHUNK_SIZE_TILES, mapWidth);
+        int endY = Math.min(startY + CHUNK_SIZE_TILES, mapHeight);
+
+        BufferedImage chunk = ImageUtils.createCompatibleImage((endX - startX) * tileWidth, (endY - startY) * tileHeight,
+                Transparency.TRANSLUCENT);
+        Graphics2D chunkGraphics = chunk.createGraphics();
+        chunkGraphics.translate(-startX * tileWidth, -startY * tileHeight);
+        boolean drewTiles = painter.paintTiles(chunkGraphics, startX, startY, endX, endY);
+        chunkGraphics.dispose();
+        return drewTiles ? chunk : EMPTY_CHUNK;
+    }
+
+    /**
+     * Evicts least recently used chunks until the cache fits its budget, never evicting the chunk
+     * that was just built.
+     */
+    private void evictOverBudget(long keepKey) {
+        Iterator<Map.Entry<Long, BufferedImage>> iterator = chunks.entrySet().iterator();
+        while (usedBytes > memoryBudgetBytes && iterator.hasNext()) {
+            Map.Entry<Long, BufferedImage> eldest = iterator.next();
+            if (eldest.getKey() == keepKey) {
+                continue;
+            }
+            usedBytes -= sizeOf(eldest.getValue());
+            iterator.remove();
+        }
+    }
+
+    private static long sizeOf(BufferedImage chunk) {
+        return chunk == EMPTY_CHUNK ? 0 : (long) chunk.getWidth() * chunk.getHeight() * BYTES_PER_PIXEL;
+    }
+}
@@ -0,0 +1,62 @@
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A decoded tileset image together with the tiles cut out of it so far. Instances are shared
+ * through the {@link TilesetImageCache}, so every map that uses the same image file reuses both the
+ * decoded pixels and the sliced tiles.
+ */
+public class TilesetImage {
+    private final BufferedImage image;
+    // Sliced tiles per tile geometry, in case two tilesets cut the same image differently
+    private final Map<Long, BufferedImage[]> tilesByGeometry = new HashMap<>();
+
+    public TilesetImage(BufferedImage image) {
+        this.image = image;
+    }
+
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    /**
+     * Returns a tile of the image as a display-compatible copy, cutting it out on the first request.
+     *
+     * @param index      Index of the tile within the tileset, counted row by row.
+     * @param tileWidth  Width of a tile in pixels.
+     * @param tileHeight Height of a tile in pixels.
+     * @param columns    Number of tiles per row.
+     * @return The tile, or null if it lies outside the image.
+     */
+    public synchronized BufferedImage getTile(int index, int tileWidth, int tileHeight, int columns) {
+        int x = (index % columns) * tileWidth;
+        int y = (index / columns) * tileHeight;
+        if (index < 0 || x + tileWidth > image.getWidth() || y + tileHeight > image.getHeight()) {
+            return null;
+        }
+        long geometry = ((long) tileWidth << 40) | ((long) tileHeight << 20) | columns;
+        BufferedImage[] tiles = tilesByGeometry.computeIfAbsent(geometry,
+                key -> new BufferedImage[(image.getHeight() / tileHeight) * columns]);
+        if (tiles[index] == null) {
+            tiles[index] = ImageUtils.toCompatibleImage(image.getSubimage(x, y, tileWidth, tileHeight));
+        }
+        return tiles[index];
+    }
+
+    /**
+     * @return The memory the cache charges for this image: the decoded pixels plus room for every
+     * tile to be sliced, at four bytes per pixel.
+     */
+    public long getEstimatedBytes() {
+        return estimateBytes(image.getWidth(), image.getHeight());
+    }
+
+    /**
+     * Estimates what an image of the given size will be charged before it is decoded, e.g. from the
+     * size a .tsx file declares.
+     */
+    public static long estimateBytes(int width, int height) {
+        return 2L * width * height * 4;
+    }
+}
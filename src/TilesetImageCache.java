@@ -0,0 +1,166 @@
+import javax.imageio.ImageIO;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Process-wide cache of decoded tileset images, shared by every map. Entries are keyed by the
+ * canonical path of the image file and its modification time, so an edited file is decoded again.
+ * The cache holds at most a fixed number of bytes and evicts the least recently used images first.
+ *
+ * Safe to use from the map loader's worker threads; images are decoded outside the lock.
+ */
+public class TilesetImageCache {
+    private static final long DEFAULT_MAX_BYTES = 128L * 1024 * 1024;    // Default memory budget
+    private static final TilesetImageCache SHARED = new TilesetImageCache(DEFAULT_MAX_BYTES);
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, TilesetImage> images = new LinkedHashMap<>(32, 0.75f, true);
+    private long usedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxBytes Memory budget, measured with {@link TilesetImage#getEstimatedBytes()}.
+     */
+    public TilesetImageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return The cache shared by all maps.
+     */
+    public static TilesetImageCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the decoded image of a file, decoding it if it isn't cached or changed on disk.
+     *
+     * @param file The image file.
+     * @return The decoded image.
+     * @throws IOException If the file can't be read or decoded.
+     */
+    public TilesetImage get(File file) throws IOException {
+        Key key = new Key(file.getCanonicalPath(), file.lastModified());
+        synchronized (this) {
+            TilesetImage image = images.get(key);
+            if (image != null) {
+                hits++;
+                return image;
+            }
+            misses++;
+        }
+
+        java.awt.image.BufferedImage decoded = ImageIO.read(file);
+        if (decoded == null) {
+            throw new IOException("Unsupported image format: " + file);
+        }
+        TilesetImage image = new TilesetImage(decoded);
+        synchronized (this) {
+            // Another thread may have decoded the same file in the meantime
+            TilesetImage existing = images.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            removeStaleVersions(key.path);
+            images.put(key, image);
+            usedBytes += image.getEstimatedBytes();
+            evictToBudget(key);
+        }
+        return image;
+    }
+
+    private void removeStaleVersions(String path) {
+        Iterator<Map.Entry<Key, TilesetImage>> iterator = images.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, TilesetImage> entry = iterator.next();
+            if (entry.getKey().path.equals(path)) {
+                usedBytes -= entry.getValue().getEstimatedBytes();
+                iterator.remove();
+            }
+        }
+    }
+
+    private void evictToBudget(Key keep) {
+        Iterator<Map.Entry<Key, TilesetImage>> iterator = images.entrySet().iterator();
+        while (usedBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<Key, TilesetImage> eldest = iterator.next();
+            if (eldest.getKey().equals(keep)) {
+                continue; // Never evict the image that was just requested
+            }
+            usedBytes -= eldest.getValue().getEstimatedBytes();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Checks whether an up-to-date decoded image of a file is cached, without decoding it or
+     * counting a hit or miss.
+     */
+    public boolean contains(File file) throws IOException {
+        Key key = new Key(file.getCanonicalPath(), file.lastModified());
+        synchronized (this) {
+            return images.containsKey(key);
+        }
+    }
+
+    public synchronized void clear() {
+        images.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return images.size() + " images, " + usedBytes / 1024 + " KB, " + hits + " hits, " + misses + " misses, "
+                + evictions + " evictions";
+    }
+
+    private static final class Key {
+        private final String path;
+        private final long lastModified;
+
+        private Key(String path, long lastModified) {
+            this.path = path;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return lastModified == other.lastModified && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, lastModified);
+        }
+    }
+}
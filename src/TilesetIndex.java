@@ -0,0 +1,64 @@
+import models.TilesetModel;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Resolves global tile IDs (GIDs) to the tileset that owns them. Tilesets are kept sorted by
+ * firstGid in a primitive array so a lookup is a binary search instead of a scan over every tileset.
+ */
+public class TilesetIndex {
+    private final TilesetModel[] tilesets;
+    private final int[] firstGids;
+    private final int gidLimit;
+
+    /**
+     * Builds the index for a map's tilesets. The list is not modified.
+     *
+     * @param tilesets The tilesets referenced by the map, in any order.
+     */
+    public TilesetIndex(List<TilesetModel> tilesets) {
+        this.tilesets = tilesets.toArray(new TilesetModel[0]);
+        Arrays.sort(this.tilesets, Comparator.comparingInt(TilesetModel::getFirstGid));
+
+        this.firstGids = new int[this.tilesets.length];
+        int limit = 0;
+        for (int i = 0; i < this.tilesets.length; i++) {
+            firstGids[i] = this.tilesets[i].getFirstGid();
+            limit = Math.max(limit, firstGids[i] + this.tilesets[i].getTileCount());
+        }
+        this.gidLimit = limit;
+    }
+
+    /**
+     * Finds the tileset whose GID range contains the given GID.
+     *
+     * @param gid The global tile ID to locate.
+     * @return The matching tileset, or null if no tileset covers the GID.
+     */
+    public TilesetModel find(int gid) {
+        int index = Arrays.binarySearch(firstGids, gid);
+        if (index < 0) {
+            // Not an exact firstGid match: take the tileset that starts just before the GID
+            index = -index - 2;
+        } else {
+            // Tilesets sharing a firstGid resolve to the first one, as a linear scan would
+            while (index > 0 && firstGids[index - 1] == gid) {
+                index--;
+            }
+        }
+        if (index < 0) {
+            return null;
+        }
+        TilesetModel tileset = tilesets[index];
+        return gid < tileset.getFirstGid() + tileset.getTileCount() ? tileset : null;
+    }
+
+    /**
+     * @return One past the highest GID covered by any tileset, suitable for sizing GID-indexed tables.
+     */
+    public int getGidLimit() {
+        return gidLimit;
+    }
+}
@@ -1,17 +1,14 @@
 import models.AnimationModel;
 import models.FrameModel;
 import models.TilesetModel;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.File;
 import java.io.IOException;
-import java.sql.SQLOutput;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -32,87 +29,95 @@ public class TilesetParser {
      *
      * @param tilesetName  The name of the tileset file (e.g., "tileset.tsx").
      * @param tilesetModel The models.TilesetModel instance to populate with parsed data.
-     * @throws ParserConfigurationException If a DocumentBuilder cannot be created.
      * @throws IOException                  If an error occurs during file access.
      * @throws SAXException                 If an error occurs during XML parsing.
      */
     public TilesetParser(String tilesetName, TilesetModel tilesetModel)
-            throws ParserConfigurationException, IOException, SAXException {
+            throws IOException, SAXException {
         this.tilesetName = tilesetName;
         parseTileset(RESOURCE_PATH + tilesetName, tilesetModel);
     }
 
     /**
      * Parses the tileset XML file to populate the models.TilesetModel with tile attributes,
-     * image details, and animation sequences.
+     * image details, and animation sequences, in a single pass over a streaming reader.
      *
      * @param tilesetPath  The path to the tileset XML file.
      * @param tilesetModel The model to populate with parsed data.
-     * @throws ParserConfigurationException If a DocumentBuilder cannot be created.
-     * @throws IOException                  If an error occurs during file access.
-     * @throws SAXException                 If an error occurs during XML parsing.
+     * @throws IOException  If an error occurs during file access.
+     * @throws SAXException If an error occurs during XML parsing.
      */
-    private void parseTileset(String tilesetPath, TilesetModel tilesetModel)
-            throws ParserConfigurationException, IOException, SAXException {
-
-        // Load and parse the XML file
-        File file = new File(tilesetPath);
+    private void parseTileset(String tilesetPath, TilesetModel tilesetModel) throws IOException, SAXException {
         System.out.println("------------- tilesetparser invoked -------------  ");
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        Document document = builder.parse(file);
-
-        // Root element representing the tileset data
-        Element tilesetRoot = document.getDocumentElement();
-
-        // Set basic tile properties
-        tilesetModel.setHeight(Double.parseDouble(tilesetRoot.getAttribute("tileheight")));
-        tilesetModel.setWidth(Double.parseDouble(tilesetRoot.getAttribute("tilewidth")));
-        tilesetModel.setTileCount(Integer.parseInt(tilesetRoot.getAttribute("tilecount")));
-        tilesetModel.setColumns(Integer.parseInt(tilesetRoot.getAttribute("columns")));
-
-        // Parse and set image properties within the tileset
-        NodeList imageNodes = tilesetRoot.getElementsByTagName("image");
-        Element imageElement = (Element) imageNodes.item(0);
-        tilesetModel.setImageWidth(Integer.parseInt(imageElement.getAttribute("width")));
-        tilesetModel.setImageHeight(Integer.parseInt(imageElement.getAttribute("height")));
-        tilesetModel.setImageSource(imageElement.getAttribute("source"));
-        System.out.println("TILESET SOURCE: "+tilesetModel.getTilesetSource());
-
-
-        tilesets.add(tilesetModel);
-
-        // Parse and set animations in the tileset
-        NodeList animationNodes = tilesetRoot.getElementsByTagName("animation");
-        for (int j = 0; j < animationNodes.getLength(); j++) {
-            System.out.println("---PARSING AN ANIMATION---");
-            Element animationElement = (Element) animationNodes.item(j);
-
-            // Initialize animation with the base tile GID (first global tile ID)
-            AnimationModel animationModel = new AnimationModel(tilesetModel.getFirstGid());
-            animationModel.setName(tilesetModel.getTilesetSource().replace(FILE_EXTENSION, ""));
-            System.out.println("ANIMATION MODEL: " + animationModel.getName()); // Debugging output
-            System.out.println("ANIMATION GID: " + animationModel.getFirstGid());
-
-            // Parse frames for each animation
-            NodeList frameNodes = animationElement.getElementsByTagName("frame");
-            for (int i = 0; i < frameNodes.getLength(); i++) {
-                System.out.println("--PARSING A FRAME--");
-                Element frameElement = (Element) frameNodes.item(i);
-
-                // Calculate global tile ID by adding base GID to the frame's tile ID
-                int tileId = Integer.parseInt(frameElement.getAttribute("tileid")) + tilesetModel.getFirstGid();
-                int duration = Integer.parseInt(frameElement.getAttribute("duration"));
-
-                // Create frame with calculated tile ID and duration, then add to animation
-                FrameModel frameModel = new FrameModel(tileId, duration);
-                animationModel.addFrame(frameModel);
-
-                System.out.println("Adding frame to animation: tileId=" + tileId + ", duration=" + duration); // Debug output
+        try (InputStream in = XmlStreamUtils.openFile(new File(tilesetPath))) {
+            XMLStreamReader reader = XmlStreamUtils.createReader(in, tilesetPath);
+            try {
+                parseTileset(reader, tilesetModel);
+            } finally {
+                reader.close();
             }
+        } catch (XMLStreamException e) {
+            throw XmlStreamUtils.toSAXException(e, tilesetPath);
+        }
+    }
 
-            // Add complete animation to the tileset
-            tilesetModel.addAnimation(animationModel);
+    private void parseTileset(XMLStreamReader reader, TilesetModel tilesetModel) throws XMLStreamException {
+        boolean imageParsed = false;
+        AnimationModel animationModel = null;   // Animation being read
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "tileset" -> {
+                        // Set basic tile properties
+                        tilesetModel.setHeight(Double.parseDouble(XmlStreamUtils.getAttribute(reader, "tileheight")));
+                        tilesetModel.setWidth(Double.parseDouble(XmlStreamUtils.getAttribute(reader, "tilewidth")));
+                        tilesetModel.setTileCount(Integer.parseInt(reader.getAttributeValue(null, "tilecount")));
+                        tilesetModel.setColumns(Integer.parseInt(reader.getAttributeValue(null, "columns")));
+                    }
+                    case "image" -> {
+                        // Only the first image is the tileset's
+                        if (!imageParsed) {
+                            tilesetModel.setImageWidth(Integer.parseInt(reader.getAttributeValue(null, "width")));
+                            tilesetModel.setImageHeight(Integer.parseInt(reader.getAttributeValue(null, "height")));
+                            tilesetModel.setImageSource(XmlStreamUtils.getAttribute(reader, "source"));
+                            System.out.println("TILESET SOURCE: " + tilesetModel.getTilesetSource());
+                            tilesets.add(tilesetModel);
+                            imageParsed = true;
+                        }
+                    }
+                    case "animation" -> {
+                        System.out.println("---PARSING AN ANIMATION---");
+                        // Initialize animation with the base tile GID (first global tile ID)
+                        animationModel = new AnimationModel(tilesetModel.getFirstGid());
+                        animationModel.setName(tilesetModel.getTilesetSource().replace(FILE_EXTENSION, ""));
+                        System.out.println("ANIMATION MODEL: " + animationModel.getName()); // Debugging output
+                        System.out.println("ANIMATION GID: " + animationModel.getFirstGid());
+                    }
+                    case "frame" -> {
+                        if (animationModel != null) {
+                            System.out.println("--PARSING A FRAME--");
+                            // Calculate global tile ID by adding base GID to the frame's tile ID
+                            int tileId = Integer.parseInt(reader.getAttributeValue(null, "tileid")) + tilesetModel.getFirstGid();
+                            int duration = Integer.parseInt(reader.getAttributeValue(null, "duration"));
+
+                            // Create frame with calculated tile ID and duration, then add to animation
+                            animationModel.addFrame(new FrameModel(tileId, duration));
+                            System.out.println("Adding frame to animation: tileId=" + tileId + ", duration=" + duration); // Debug output
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("animation")) {
+                // Add complete animation to the tileset
+                tilesetModel.addAnimation(animationModel);
+                animationModel = null;
+            }
+        }
+        if (!imageParsed) {
+            throw new XMLStreamException("Tileset has no image", reader.getLocation());
         }
     }
 
@@ -0,0 +1,80 @@
+import models.TilesetModel;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The image of one of a map's tilesets. Tiles are cut out of the image only when they are first
+ * looked up, so a map that uses a handful of tiles from a large sheet doesn't pay for the rest. The
+ * decoded image and its tiles come from the shared {@link TilesetImageCache}, so maps using the
+ * same image share them. The sheet counts how many of its tiles were actually used.
+ */
+public class TilesetSheet {
+    private final TilesetModel tileset;
+    private final TilesetImage image;
+    private int touchedTiles;
+
+    /**
+     * @param tileset The tileset the image belongs to.
+     * @param image   The decoded tileset image.
+     */
+    public TilesetSheet(TilesetModel tileset, TilesetImage image) {
+        this.tileset = tileset;
+        this.image = image;
+    }
+
+    /**
+     * Gets the decoded image of a tileset from the shared cache, decoding it from the resources
+     * folder if needed. Safe to call from any thread.
+     *
+     * @param tileset A parsed tileset.
+     * @return The sheet, or null if the image file doesn't exist.
+     * @throws IOException If the image can't be read.
+     */
+    public static TilesetSheet load(TilesetModel tileset) throws IOException {
+        File tilesetFile = getImageFile(tileset);
+        if (!tilesetFile.exists()) {
+            System.err.println("Tileset image file not found: " + tileset.getImageSource());
+            return null;
+        }
+        return new TilesetSheet(tileset, TilesetImageCache.getShared().get(tilesetFile));
+    }
+
+    /**
+     * @param tileset A parsed tileset.
+     * @return The tileset's image file in the resources folder.
+     */
+    public static File getImageFile(TilesetModel tileset) {
+        return new File("resources/" + tileset.getImageSource());
+    }
+
+    /**
+     * Looks up a tile as a display-compatible image, cutting it out of the sheet if no map has used
+     * it yet. Callers cache the result; every call counts as a newly touched tile.
+     *
+     * @param gid The global tile ID, which must belong to this tileset.
+     * @return The tile image, or null if the tile lies outside the sheet.
+     */
+    public BufferedImage sliceTile(int gid) {
+        BufferedImage tile = image.getTile(gid - tileset.getFirstGid(), (int) tileset.getWidth(),
+                (int) tileset.getHeight(), tileset.getColumns());
+        if (tile == null) {
+            System.err.println("Skipping tile " + gid + ": out of bounds for tileset image " + tileset.getImageSource());
+            return null;
+        }
+        touchedTiles++;
+        return tile;
+    }
+
+    public TilesetModel getTileset() {
+        return tileset;
+    }
+
+    /**
+     * @return The number of distinct tiles used from this sheet so far.
+     */
+    public int getTouchedTileCount() {
+        return touchedTiles;
+    }
+}
@@ -1,14 +1,12 @@
 import models.*;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -25,6 +23,7 @@ public class TmxParser {
     private List<ObjectModel> objects = new ArrayList<>();
     private TilesetParser tilesetParser;
     private List<TilesetModel> tilesets = new ArrayList<>();
+    private TilesetIndex tilesetIndex;
     private List<ObjectPropertiesModel> objectPropertiesModels = new ArrayList<>();
     // Map to track names and ensure unique names for duplicate objects
     private HashMap<String, Integer> nameCountMap = new HashMap<>();
@@ -34,121 +33,187 @@ public class TmxParser {
      *
      * @param tmxFilePath Path to the .tmx file to parse.
      * @throws IOException                  If file access fails.
-     * @throws ParserConfigurationException If a DocumentBuilder cannot be created.
      * @throws SAXException                 If an error occurs during XML parsing.
      */
-    public TmxParser(String tmxFilePath) throws IOException, ParserConfigurationException, SAXException {
-        parseTmxFile(tmxFilePath);
+    public TmxParser(String tmxFilePath) throws IOException, SAXException {
+        this(tmxFilePath, true);
     }
 
     /**
-     * Parses the .tmx file and extracts properties for map, layers, tilesets, and objects.
+     * Initializes the parser by loading and parsing the specified .tmx file, optionally leaving the
+     * referenced .tsx files for the caller to parse, e.g. in parallel.
      *
-     * @param tmxFilePath Path to the .tmx file to parse.
+     * @param tmxFilePath   Path to the .tmx file to parse.
+     * @param parseTilesets Whether to parse the tilesets right away. If false, the tilesets only have
+     *                      their firstgid and source set until {@link #completeTilesets(List)} is called.
      * @throws IOException                  If file access fails.
-     * @throws ParserConfigurationException If a DocumentBuilder cannot be created.
      * @throws SAXException                 If an error occurs during XML parsing.
      */
-    private void parseTmxFile(String tmxFilePath) throws IOException, ParserConfigurationException, SAXException {
-        File file = new File(tmxFilePath);
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        Document document = builder.parse(file);
-
-        this.mapModel = new TmxMapModel();
-        Element tmxMap = document.getDocumentElement();
-
-        // Set map attributes
-        mapModel.setMapWidth(Integer.parseInt(tmxMap.getAttribute("width")));
-        mapModel.setMapHeight(Integer.parseInt(tmxMap.getAttribute("height")));
-        mapModel.setTileWidth(Integer.parseInt(tmxMap.getAttribute("tilewidth")));
-        mapModel.setTileHeight(Integer.parseInt(tmxMap.getAttribute("tileheight")));
-
-        // Parse tilesets
-        NodeList tileSetNodes = tmxMap.getElementsByTagName("tileset");
-        for (int j = 0; j < tileSetNodes.getLength(); j++) {
-
-            Element tilesetElement = (Element) tileSetNodes.item(j);
-            TilesetModel tileSetModel = new TilesetModel();
-
-            tileSetModel.setFirstGid(Integer.parseInt(tilesetElement.getAttribute("firstgid")));
-            System.out.println("TmxParser.java - parseTmxFile: firstgid: " + tileSetModel.getFirstGid());
-            tileSetModel.setTilesetSource(tilesetElement.getAttribute("source"));
-            System.out.println("TmxParser.java - parseTmxFile: parsing tileset " + tileSetModel.getTilesetSource());
+    public TmxParser(String tmxFilePath, boolean parseTilesets) throws IOException, SAXException {
+        parseTmxFile(tmxFilePath, parseTilesets);
+    }
 
-            // Initialize and parse tileset details using TilesetParser
-            this.tilesetParser = new TilesetParser(tileSetModel.getTilesetSource(), tileSetModel);
-            tilesets.add(tileSetModel);
+    /**
+     * Parses the .tmx file and extracts properties for map, layers, tilesets, and objects in a single
+     * pass over a streaming reader; layer data is decoded straight into tile arrays.
+     *
+     * @param tmxFilePath   Path to the .tmx file to parse.
+     * @param parseTilesets Whether to parse the referenced tilesets as well.
+     * @throws IOException                  If file access fails.
+     * @throws SAXException                 If an error occurs during XML parsing.
+     */
+    private void parseTmxFile(String tmxFilePath, boolean parseTilesets) throws IOException, SAXException {
+        try (InputStream in = XmlStreamUtils.openFile(new File(tmxFilePath))) {
+            XMLStreamReader reader = XmlStreamUtils.createReader(in, tmxFilePath);
+            try {
+                parseMap(reader, parseTilesets);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw XmlStreamUtils.toSAXException(e, tmxFilePath);
         }
-
-        // Parse layers
-        NodeList layerNodes = tmxMap.getElementsByTagName("layer");
-        //System.out.println("TmxParser.java PARSING LAYERS: ");
-        for (int i = 0; i < layerNodes.getLength(); i++) {
-            Element layerElement = (Element) layerNodes.item(i);
-            LayerModel layer = new LayerModel(
-                    layerElement.getAttribute("name"),
-                    Integer.parseInt(layerElement.getAttribute("width")),
-                    Integer.parseInt(layerElement.getAttribute("height")),
-                    layerElement.getElementsByTagName("data").item(0).getTextContent().trim(),
-                    Integer.parseInt(layerElement.getAttribute("id"))
-            );
-            layers.add(layer);
+        if (parseTilesets) {
+            sortTilesetsByFirstGid();
+            tilesetIndex = new TilesetIndex(tilesets);
         }
+    }
 
-        // Parse object groups and individual objects within each group
-        NodeList objectGroupNodes = tmxMap.getElementsByTagName("objectgroup");
-        for (int j = 0; j < objectGroupNodes.getLength(); j++) {
-            Element objectGroupElement = (Element) objectGroupNodes.item(j);
-            objectGroupModel objectGroup = new objectGroupModel();
-
-            objectGroup.setId(Integer.parseInt(objectGroupElement.getAttribute("id")));
-            objectGroup.setName(objectGroupElement.getAttribute("name"));
-
-            NodeList objectNodes = objectGroupElement.getElementsByTagName("object");
-            for (int i = 0; i < objectNodes.getLength(); i++) {
-                Element objectElement = (Element) objectNodes.item(i);
-                ObjectModel object = new ObjectModel();
-
-                String baseName = objectElement.getAttribute("name");
-                String uniqueName = getUniqueObjectName(baseName);  // Get unique name
-
-                object.setName(uniqueName);  // Assign unique name to the object
-                System.out.println("Object ID: " + objectElement.getAttribute("id") + " - Name: " + uniqueName);
+    private void parseMap(XMLStreamReader reader, boolean parseTilesets)
+            throws XMLStreamException, IOException, SAXException {
+        String objectGroupName = null;  // Name of the object group being read
+        ObjectModel object = null;      // Object being read, null for skipped objects
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "map" -> {
+                        // Set map attributes
+                        this.mapModel = new TmxMapModel();
+                        mapModel.setMapWidth(Integer.parseInt(reader.getAttributeValue(null, "width")));
+                        mapModel.setMapHeight(Integer.parseInt(reader.getAttributeValue(null, "height")));
+                        mapModel.setTileWidth(Integer.parseInt(reader.getAttributeValue(null, "tilewidth")));
+                        mapModel.setTileHeight(Integer.parseInt(reader.getAttributeValue(null, "tileheight")));
+                    }
+                    case "tileset" -> parseTilesetReference(reader, parseTilesets);
+                    case "layer" -> layers.add(parseLayer(reader));
+                    case "objectgroup" -> objectGroupName = XmlStreamUtils.getAttribute(reader, "name");
+                    case "object" -> {
+                        if (objectGroupName != null) {
+                            object = parseObject(reader, objectGroupName);
+                        }
+                    }
+                    case "property" -> {
+                        if (object != null) {
+                            ObjectPropertiesModel property = new ObjectPropertiesModel();
+                            property.setPropertyName(XmlStreamUtils.getAttribute(reader, "name"));
+                            property.setObjectName(object.getName());  // Set unique name for property association
+                            property.setType(XmlStreamUtils.getAttribute(reader, "type"));
+                            property.setValue(XmlStreamUtils.getAttribute(reader, "value"));
+                            object.addProperty(property);
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "object" -> {
+                        if (object != null) {
+                            objects.add(object);
+                            object = null;
+                        }
+                    }
+                    case "objectgroup" -> objectGroupName = null;
+                    default -> {
+                    }
+                }
+            }
+        }
+    }
 
-                // Set other attributes as before
-                object.setLayerName(objectGroupElement.getAttribute("name"));
-                object.setId(Integer.parseInt(objectElement.getAttribute("id")));
+    /**
+     * Reads a tileset reference and skips its contents, leaving the reader on its end tag.
+     */
+    private void parseTilesetReference(XMLStreamReader reader, boolean parseTilesets)
+            throws XMLStreamException, IOException, SAXException {
+        TilesetModel tileSetModel = new TilesetModel();
+
+        tileSetModel.setFirstGid(Integer.parseInt(reader.getAttributeValue(null, "firstgid")));
+        System.out.println("TmxParser.java - parseTmxFile: firstgid: " + tileSetModel.getFirstGid());
+        tileSetModel.setTilesetSource(XmlStreamUtils.getAttribute(reader, "source"));
+        System.out.println("TmxParser.java - parseTmxFile: parsing tileset " + tileSetModel.getTilesetSource());
+        XmlStreamUtils.skipElement(reader);
+
+        // Initialize and parse tileset details using TilesetParser
+        if (parseTilesets) {
+            this.tilesetParser = new TilesetParser(tileSetModel.getTilesetSource(), tileSetModel);
+        }
+        tilesets.add(tileSetModel);
+    }
 
-                if (!objectElement.getAttribute("gid").isEmpty()) {
-                    object.setGid(Integer.parseInt(objectElement.getAttribute("gid")));
-                }
-                if (objectElement.hasAttribute("width") && objectElement.hasAttribute("height")) {
-                    object.setHeight(Double.parseDouble(objectElement.getAttribute("height")));
-                    object.setWidth(Double.parseDouble(objectElement.getAttribute("width")));
+    /**
+     * Reads a tile layer, leaving the reader on its end tag.
+     */
+    private LayerModel parseLayer(XMLStreamReader reader) throws XMLStreamException {
+        String name = XmlStreamUtils.getAttribute(reader, "name");
+        int width = Integer.parseInt(reader.getAttributeValue(null, "width"));
+        int height = Integer.parseInt(reader.getAttributeValue(null, "height"));
+        int id = Integer.parseInt(reader.getAttributeValue(null, "id"));
+        int[] tileData = null;
+
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                if (tileData == null && reader.getLocalName().equals("data")) {
+                    tileData = LayerDataDecoder.decode(reader, width * height);
                 } else {
-                    continue; // Skip objects without width and height attributes
+                    XmlStreamUtils.skipElement(reader);   // Layer properties
                 }
+            }
+        }
+        if (tileData == null) {
+            throw new XMLStreamException("Layer " + name + " has no data", reader.getLocation());
+        }
+        return new LayerModel(name, width, height, tileData, id);
+    }
 
-                object.setX(Double.parseDouble(objectElement.getAttribute("x")));
-                object.setY(Double.parseDouble(objectElement.getAttribute("y")));
+    /**
+     * Reads the attributes of an object; its properties follow as separate elements.
+     *
+     * @return The object, or null if it has no size and is skipped.
+     */
+    private ObjectModel parseObject(XMLStreamReader reader, String objectGroupName) {
+        ObjectModel object = new ObjectModel();
 
-                // Parse object properties
-                NodeList propertyNodes = objectElement.getElementsByTagName("property");
-                for (int k = 0; k < propertyNodes.getLength(); k++) {
-                    Element propertyElement = (Element) propertyNodes.item(k);
-                    ObjectPropertiesModel property = new ObjectPropertiesModel();
+        String baseName = XmlStreamUtils.getAttribute(reader, "name");
+        String uniqueName = getUniqueObjectName(baseName);  // Get unique name
 
-                    property.setPropertyName(propertyElement.getAttribute("name"));
-                    property.setObjectName(uniqueName);  // Set unique name for property association
-                    property.setType(propertyElement.getAttribute("type"));
-                    property.setValue(propertyElement.getAttribute("value"));
+        object.setName(uniqueName);  // Assign unique name to the object
+        String id = XmlStreamUtils.getAttribute(reader, "id");
+        System.out.println("Object ID: " + id + " - Name: " + uniqueName);
 
-                    object.addProperty(property);
-                }
-                objects.add(object);
-            }
+        object.setLayerName(objectGroupName);
+        object.setId(Integer.parseInt(id));
+
+        String gid = XmlStreamUtils.getAttribute(reader, "gid");
+        if (!gid.isEmpty()) {
+            object.setGid(Integer.parseInt(gid));
         }
+        String width = reader.getAttributeValue(null, "width");
+        String height = reader.getAttributeValue(null, "height");
+        if (width == null || height == null) {
+            return null; // Skip objects without width and height attributes
+        }
+        object.setHeight(Double.parseDouble(height));
+        object.setWidth(Double.parseDouble(width));
+
+        object.setX(Double.parseDouble(XmlStreamUtils.getAttribute(reader, "x")));
+        object.setY(Double.parseDouble(XmlStreamUtils.getAttribute(reader, "y")));
+        return object;
     }
 
     /**
@@ -206,15 +271,30 @@ public class TmxParser {
     }
 
     /**
-     * Sorts tilesets by firstGid and returns the sorted list.
+     * Returns the tilesets, sorted by firstGid once parsing completes. Before
+     * {@link #completeTilesets(List)}, a parser that defers its tilesets returns them in the order the
+     * map lists them.
      *
      * @return List of models.TilesetModel objects.
      */
     public List<TilesetModel> getTilesets() {
-        sortTilesetsByFirstGid();
         return this.tilesets;
     }
 
+    /**
+     * Finishes a parser created without parsing its tilesets, once the caller has run a
+     * TilesetParser for each of them.
+     *
+     * @param tilesetParsers The parsers that filled in the tilesets, in the order the map lists them.
+     */
+    public void completeTilesets(List<TilesetParser> tilesetParsers) {
+        if (!tilesetParsers.isEmpty()) {
+            this.tilesetParser = tilesetParsers.get(tilesetParsers.size() - 1);
+        }
+        sortTilesetsByFirstGid();
+        tilesetIndex = new TilesetIndex(tilesets);
+    }
+
     /**
      * Sorts the tilesets list by firstGid.
      */
@@ -230,24 +310,13 @@ public class TmxParser {
     }
 
     /**
-     * Finds the models.TilesetModel associated with a given GID by checking ranges based on
-     * firstGid and tile count.
+     * Finds the models.TilesetModel associated with a given GID with a binary search over the
+     * tilesets' firstGid values.
      *
      * @param gid The global tile ID to locate.
      * @return The corresponding models.TilesetModel, or null if not found.
      */
     public TilesetModel findTilesetForGid(int gid) {
-        sortTilesetsByFirstGid(); // Ensure sorted order for range checks
-
-        for (TilesetModel tileset : tilesets) {
-            int firstGid = tileset.getFirstGid();
-            int tileCount = tileset.getTileCount();
-
-            // Check if gid is within the range for this tileset
-            if (gid >= firstGid && gid < firstGid + tileCount) {
-                return tileset;
-            }
-        }
-        return null; // No tileset found for this gid
+        return tilesetIndex.find(gid);
     }
 }
\ No newline at end of file
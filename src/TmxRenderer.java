@@ -1,29 +1,33 @@
 import models.*;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
 import java.util.*;
 import java.util.List;
 
 public class TmxRenderer {
     private static final int FRAME_DURATION_MS = 300;      // Default duration for animation frames in milliseconds
-    private static final int TILE_RENDER_SIZE = 64;        // Size in pixels for rendering tiles
     private static final int ENEMY_RENDER_SIZE = 128;      // Size in pixels for rendering enemies
+    private static final int ANIMATION_VIEW_MARGIN = 64;   // Pixels around the view in which animations are still drawn
     private Set<String> encounteredObjects = new HashSet<>();
     private TmxMapModel mapModel;
-    private HashMap<Integer, BufferedImage> tileImages;
+    private BufferedImage[] tileImages;                     // Tile images indexed directly by GID, filled on first use
+    private boolean[] tileSliced;                           // Whether a GID's tile has been looked up before
+    private final Map<TilesetModel, TilesetSheet> tilesetSheets = new IdentityHashMap<>();
+    private TilesetIndex tilesetIndex;
     private List<LayerModel> layers;
     private List<ObjectModel> objects;
     private List<AnimationModel> animations;
+    private List<AnimationRenderSpec> animationSpecs;     // Render spec for each animation, by index
     private List<TilesetModel> tilesets;
     private Camera camera;
-    private Map<Integer, BufferedImage> animationFrameCache = new HashMap<>();
     private Component displayComponent;
     private Graphics2D g2d;
     private Set<String> sixtyFourBitObjects;
+    private TileChunkCache chunkCache;
+    private final ScaledFrameCache scaledFrameCache = new ScaledFrameCache();
+    private final AnimationClock animationClock = new AnimationClock();
     /**
      * Initializes the renderer with the necessary models, layers, and camera view.
      *
@@ -36,69 +40,56 @@ public class TmxRenderer {
      */
     public TmxRenderer(TmxMapModel mapModel, List<LayerModel> layers, List<ObjectModel> objects,
                        List<AnimationModel> animations, List<TilesetModel> tilesets, Camera camera, Set<String> encounteredObjects) {
+        this(mapModel, layers, objects, animations, tilesets, camera, encounteredObjects, null);
+    }
+
+    /**
+     * Initializes the renderer with tileset images that were already decoded, e.g. by a {@link MapLoader}.
+     *
+     * @param sheets Decoded images of the tilesets, or null to load them from disk.
+     */
+    public TmxRenderer(TmxMapModel mapModel, List<LayerModel> layers, List<ObjectModel> objects,
+                       List<AnimationModel> animations, List<TilesetModel> tilesets, Camera camera, Set<String> encounteredObjects,
+                       List<TilesetSheet> sheets) {
         System.out.println("---- TMX RENDERER INVOKED ----");
         this.mapModel = mapModel;
         this.layers = layers;
         this.objects = objects;
         this.animations = new ArrayList<>();
+        this.animationSpecs = new ArrayList<>();
         this.tilesets = tilesets;
-        this.tileImages = new HashMap<>();
+        this.tilesetIndex = new TilesetIndex(tilesets);
+        this.tileImages = new BufferedImage[tilesetIndex.getGidLimit()];
+        this.tileSliced = new boolean[tileImages.length];
         this.camera = camera;
         sixtyFourBitObjects = new HashSet<>(Arrays.asList("pink_shop", "brown_shop", "shop","gnome","gnome_1","gnome_2"));
         this.encounteredObjects = encounteredObjects;
 
 
-        loadTilesetImages();
+        if (sheets != null) {
+            for (TilesetSheet sheet : sheets) {
+                tilesetSheets.put(sheet.getTileset(), sheet);
+            }
+        } else {
+            loadTilesetImages();
+        }
         initializeAnimations();
+        chunkCache = new TileChunkCache(this::paintTiles, mapModel.getMapWidth(), mapModel.getMapHeight(),
+                mapModel.getTileWidth(), mapModel.getTileHeight());
 
     }
 
     /**
-     * Loads all tileset images, splits them into individual tiles, and caches them for fast access.
+     * Loads all tileset images. Tiles are cut out of them when first looked up.
      */
     private void loadTilesetImages() {
         System.out.println("--- TmxRenderer.java : loadTilesetImages invoked ---");
         for (TilesetModel tileset : tilesets) {
             try {
                 System.out.println("\nTmxRenderer.java loading tilesetimage : resources/"+  tileset.getImageSource());
-                File tilesetFile = new File("resources/" + tileset.getImageSource());
-                if (!tilesetFile.exists()) {
-                    System.err.println("Tileset image file not found: " + tileset.getImageSource());
-                    continue;
-                }
-
-                BufferedImage tilesetImage = ImageIO.read(tilesetFile);
-                int tileWidth = (int) tileset.getWidth();
-                int tileHeight = (int) tileset.getHeight();
-                int columns = tileset.getColumns();
-
-                System.out.println("TmxRenderer.java - loadTilesetImages:  calculating x and y positions of the tile within the tileset image grid: ");
-                // Calculate x and y positions of the tile within the tileset image grid:
-                for (int i = 0; i < tileset.getTileCount(); i++) {
-
-                    // `i % columns` gives the tile’s column position in its row,
-                    // and multiplying by `tileWidth` gives the exact x-coordinate in pixels.
-                    int x = (i % columns) * tileWidth;
-
-
-                    // `i / columns` gives the row number of tile `i`,
-                    // and multiplying by `tileHeight` gives the exact y-coordinate in pixels.
-                    int y = (i / columns) * tileHeight;
-
-
-                    // Calculate GID
-                    int gid = tileset.getFirstGid() + i; // Ensure this is consistent
-
-                    System.out.println("TmxRenderer.java - loadTilesetImages: TileSet firstGid being loaded into tileImages: " + gid);
-                    System.out.println("x: " + x + ", y: " + y);
-                    if (x + tileWidth > tilesetImage.getWidth() || y + tileHeight > tilesetImage.getHeight()) {
-                        System.err.println("Skipping tile: (" + x + ", " + y + ") is out of bounds for tileset image " + tileset.getImageSource());
-                        continue;
-                    }
-
-                    // Add to tileImages map
-                    // Extract the tile as a subimage and store it in `tileImages` with its GID key.
-                    tileImages.put(tileset.getFirstGid() + i, tilesetImage.getSubimage(x, y, tileWidth, tileHeight));
+                TilesetSheet sheet = TilesetSheet.load(tileset);
+                if (sheet != null) {
+                    tilesetSheets.put(tileset, sheet);
                 }
             } catch (IOException e) {
                 System.err.println("Error loading tileset image: " + e.getMessage());
@@ -112,39 +103,32 @@ public class TmxRenderer {
     private void initializeAnimations() {
         System.out.println("\n--- TmxRenderer.java initializeAnimations invoked ---");
         System.out.println("TmxRenderer.java - initalizeAnimations : looping through objects to initialize animations: ");
+        // Objects from the same tileset play the same frames, so each tileset's sequence is built once and shared
+        Map<Integer, FrameSequence> sequencesByTileset = new HashMap<>();
         for (ObjectModel object : objects) {
             System.out.println("\nTmxRenderer.java - initalizeAnimations : Object name: " + object.getName());
             int gid = object.getGid();
 
-            if (tileImages.containsKey(gid)) {
+            if (getTileImage(gid) != null) {
                 System.out.println("TmxRenderer.java - initalizeAnimations: Making an animation model for object " + object.getName());
-                AnimationModel animation = new AnimationModel(gid);
-                animation.setX(object.getX());
-                animation.setY(object.getY());
-
-                // Set name or default if object name is not provided
-                animation.setName(object.getName() != null ? object.getName().replace(".tsk", "") : "UnnamedEnemy");
 
                 // Set up frames for animations based on tileset properties
-                TilesetModel tileset = findTilesetForGid(gid);
+                TilesetModel tileset = tilesetIndex.find(gid);
                 if (tileset != null) {
-                    int tileCount = tileset.getTileCount();
-                    int firstGid = tileset.getFirstGid();
-
-                    // Add frames, cycling through tile IDs to stay within `tileCount` limit.
-                    for (int i = 0; i < Math.min(16, tileCount); i++) {
-                        // `(i % tileCount)` cycles `i` from 0 to tileCount-1, creating a looping effect.
-                        // Adding `firstGid` adjusts each tile ID to be within the tileset's unique ID range.
-                        int tileId = firstGid + (i % tileCount); // Calculate the correct tile ID
-                        FrameModel frame = new FrameModel(tileId, FRAME_DURATION_MS);
-                        // Add the frame to the animation, maintaining a sequence within tile bounds.
-                        animation.addFrame(frame);
-                    }
+                    FrameSequence sequence = sequencesByTileset.computeIfAbsent(tileset.getFirstGid(),
+                            firstGid -> createTilesetSequence(tileset));
+                    AnimationModel animation = new AnimationModel(gid, sequence, 0);
+                    animation.setX(object.getX());
+                    animation.setY(object.getY());
+
+                    // Set name or default if object name is not provided
+                    animation.setName(object.getName() != null ? object.getName().replace(".tsk", "") : "UnnamedEnemy");
                     if (encounteredObjects.contains(animation.getName().toLowerCase())) {
                         animation.setDefeated(true);
                     }
 
                     animations.add(animation);
+                    animationSpecs.add(AnimationRenderSpec.forAnimation(animation.getName()));
                     System.out.println("TmxRenderer.java - initalizeAnimations: Initialized animation for GID " + gid + " with frames at position (" +
                             object.getX() + ", " + object.getY() + ")");
                 }
@@ -156,22 +140,44 @@ public class TmxRenderer {
     }
 
     /**
-     * Finds the tileset that corresponds to a given GID (global tile ID).
+     * Builds the frame sequence for objects of a tileset: its tiles in order, up to 16 frames.
+     */
+    private FrameSequence createTilesetSequence(TilesetModel tileset) {
+        int tileCount = tileset.getTileCount();
+        int firstGid = tileset.getFirstGid();
+        List<FrameModel> frames = new ArrayList<>();
+
+        // Add frames, cycling through tile IDs to stay within `tileCount` limit.
+        for (int i = 0; i < Math.min(16, tileCount); i++) {
+            // `(i % tileCount)` cycles `i` from 0 to tileCount-1, creating a looping effect.
+            // Adding `firstGid` adjusts each tile ID to be within the tileset's unique ID range.
+            int tileId = firstGid + (i % tileCount); // Calculate the correct tile ID
+            frames.add(new FrameModel(tileId, FRAME_DURATION_MS));
+        }
+        return new FrameSequence(frames);
+    }
+
+    /**
+     * Looks up the image of a tile by its GID (global tile ID).
      *
      * @param gid The GID of the tile.
-     * @return The matching models.TilesetModel or null if not found.
+     * @return The tile image, or null if the GID has no loaded image.
      */
-    private TilesetModel findTilesetForGid(int gid) {
-        for (TilesetModel tileset : tilesets) {
-            int firstGid = tileset.getFirstGid();
-            int lastGid = firstGid + tileset.getTileCount() - 1;
-
-            if (gid >= firstGid && gid <= lastGid) {
-                return tileset;
+    private BufferedImage getTileImage(int gid) {
+        if (gid <= 0 || gid >= tileImages.length) {
+            return null;
+        }
+        BufferedImage tile = tileImages[gid];
+        if (tile == null && !tileSliced[gid]) {
+            // First lookup: cut the tile out of its sheet
+            tileSliced[gid] = true;
+            TilesetSheet sheet = tilesetSheets.get(tilesetIndex.find(gid));
+            if (sheet != null) {
+                tile = sheet.sliceTile(gid);
+                tileImages[gid] = tile;
             }
         }
-
-        return null;
+        return tile;
     }
 
     public void markObjectAsEncountered(String objectName) {
@@ -198,112 +204,169 @@ public class TmxRenderer {
     }
 
 
+    /**
+     * Advances the animation clock to the given time. Called from the fixed update step so
+     * animation speed doesn't depend on how often the map is painted; the frame of each animation
+     * is looked up from this time when it is drawn.
+     *
+     * @param timeMillis The simulation time in milliseconds.
+     */
+    public void updateAnimations(long timeMillis) {
+        animationClock.advanceTo(timeMillis);
+    }
+
     /**
      * Renders the map, including static tiles and animations, based on the camera's position.
      *
      * @param g The graphics context used for drawing.
      */
     public void render(Graphics g) {
-         g2d = (Graphics2D) g;
-
-        // Render static tiles layer by layer
-        for (LayerModel layer : layers) {
-            for (int y = 0; y < layer.getLayerHeight(); y++) {
-                for (int x = 0; x < layer.getLayerWidth(); x++) {
-                    int tileId = layer.getTileIdAt(x, y);
-                    if (tileId > 0 && tileImages.containsKey(tileId)) {
-                        BufferedImage tile = tileImages.get(tileId);
-                        g2d.drawImage(tile, x * mapModel.getTileWidth(), y * mapModel.getTileHeight(), null);
-                    }
-                }
-            }
-        }
-
-        // Render animated objects, skipping defeated ones
-        for (AnimationModel animation : animations) {
-            if (animation.isDefeated()|| encounteredObjects.contains(animation.getName())){ continue;} // Skip defeated animations
-
-            animation.update();  // Update animation to get the current frame
-            int tileId = animation.getCurrentTileId();
-            BufferedImage frame = animationFrameCache.get(tileId);
+        renderTileLayers(g);
+        renderAnimations(g);
+    }
 
-            if (frame == null) {
+    /**
+     * Renders the static tile layers inside the view from the pre-baked chunks.
+     *
+     * @param g The graphics context used for drawing.
+     */
+    public void renderTileLayers(Graphics g) {
+        g2d = (Graphics2D) g;
+        chunkCache.render(g2d, getVisibleTileRange(g2d));
+    }
 
-                frame = tileImages.get(tileId);
-                if (frame != null) {
-                    animationFrameCache.put(tileId, frame);
+    /**
+     * Renders the animated map objects, skipping defeated ones and ones outside the view. Frames are
+     * looked up from the animation clock, so an animation that comes back into view shows the frame
+     * for the current time.
+     *
+     * @param g The graphics context used for drawing.
+     */
+    public void renderAnimations(Graphics g) {
+        g2d = (Graphics2D) g;
+        Rectangle view = getVisibleArea(g2d);
+        if (view != null) {
+            view.grow(ANIMATION_VIEW_MARGIN, ANIMATION_VIEW_MARGIN);
+        }
+        long time = animationClock.getFrameTime();
+        for (int i = 0; i < animations.size(); i++) {
+            AnimationModel animation = animations.get(i);
+            if (animation.isDefeated()) { continue; } // Skip defeated animations
+
+            AnimationRenderSpec spec = animationSpecs.get(i);
+            int x = (int) animation.getX() + spec.getOffsetX();
+            int y = (int) animation.getY() + spec.getOffsetY();
+            switch (spec.getBehavior()) {
+                case DRAW -> { }
+                case HELP_NPC -> {
+                    if (checkIfHelped(animation.getName())) {
+                        // Once helped, the NPC moves next to the house
+                        animation.setY(53);
+                        animation.setX(88);
+                        setObjectXandY(animation.getName(), 340, 120);
+                        x = (int) animation.getX();
+                        y = (int) animation.getY();
+                    }
                 }
+                case HIDDEN -> { continue; }
             }
-         // for me to think about later - cali
-            if ((frame != null) && animation.getName().matches("(?i)apple.*")) {
-                g2d.drawImage(frame, (int) animation.getX(), (int) animation.getY() - 15, 12, 12, null);
-            }
-            if ((frame != null) && animation.getName().matches("(?i)study_stud.*")) {
-                g2d.drawImage(frame, (int) animation.getX(), (int) animation.getY() - 15, 10, 10, null);
-            }
-            if ((frame != null) && animation.getName().matches("brown_shop") || animation.getName().matches("pink_shop"))
-            {
-                g2d.drawImage(frame, (int) animation.getX(), (int) animation.getY() -30, 40, 40 , null);
-            }
-            if ((frame != null) && animation.getName().matches("fountain")) {
-                g2d.drawImage(frame, (int) animation.getX(), (int) animation.getY() -50, 45, 50 , null);
-            }
-            if ((frame != null) && animation.getName().matches("bus")) {
-                g2d.drawImage(frame, (int) animation.getX(), (int) animation.getY() - 120, TILE_RENDER_SIZE * 2, TILE_RENDER_SIZE * 2, null);
-            }
-            if ((frame != null) && animation.getName().matches("lowXPChest")) {
-                g2d.drawImage(frame, (int) animation.getX()-5, (int) animation.getY() - 30, 40, TILE_RENDER_SIZE/2 ,null);
-            }
-            if((frame != null) && animation.getName().matches("(?i)Beetle.*") ) {
-                g2d.drawImage(frame, (int) animation.getX(), (int) animation.getY() -15 , TILE_RENDER_SIZE/4, TILE_RENDER_SIZE/4 , null);
+            if (view != null && !view.intersects(x, y, spec.getWidth(), spec.getHeight())) {
+                continue; // Off screen
             }
 
-            if((frame != null) && animation.getName().matches("(?i)slime.*") ) {
-                g2d.drawImage(frame, (int) animation.getX(), (int) animation.getY() - 30, TILE_RENDER_SIZE/2, TILE_RENDER_SIZE/2 , null);
-            }
-
-            if((frame != null) && animation.getName().matches("(?i)spider.*") ) {
-                g2d.drawImage(frame, (int) animation.getX(), (int) animation.getY() - 30, TILE_RENDER_SIZE/4, TILE_RENDER_SIZE/4 , null);
-
-            }
-            if((frame != null) && animation.getName().matches("(?i)phantom.*") ) {
-                g2d.drawImage(frame, (int) animation.getX(), (int) animation.getY() - 30, TILE_RENDER_SIZE/4, TILE_RENDER_SIZE/4 , null);
-
-            }
-            if((frame != null) && animation.getName().matches("(?i)sign.*") ) {
-                g2d.drawImage(frame, (int) animation.getX(), (int) animation.getY() - 20, 20, 20 , null);
-
-            }
-            if((frame != null) && animation.getName().matches("(?i)frog.*") ) {
-                g2d.drawImage(frame, (int) animation.getX(), (int) animation.getY() - 20, 20, 20, null);
-
+            int tileId = animation.getTileIdAt(time);
+            BufferedImage frame = getTileImage(tileId);
+            if (frame != null) {
+                drawFrame(g2d, tileId, frame, x, y, spec.getWidth(), spec.getHeight());
             }
+        }
+    }
 
-            if ((frame != null) && animation.getName().matches("(?i)help_npc(_\\d+)?") ) {
-
-              //  System.out.println("TMX RENDERER CHECK IF HELPED -------------------" + checkIfHelped(animation.getName()));
-                if(checkIfHelped(animation.getName()) == false) {
-                    g2d.drawImage(frame, (int) animation.getX(), (int) animation.getY() - 20, 20, 20, null);
-                }
-                else if(checkIfHelped(animation.getName())== true){
-                    System.out.println(checkIfHelped(animation.getName()));
-                    animation.setY(53);
-                    animation.setX(88);
-                    setObjectXandY(animation.getName(), 340, 120);
-                    g2d.drawImage(frame, (int) animation.getX(), (int) (int) animation.getY(), 20, 20, null);
+    /**
+     * Draws every static layer for a range of tiles, layer by layer. Used to bake the chunk cache.
+     *
+     * @param g      The graphics context, using map pixel coordinates.
+     * @param startX First tile column, inclusive.
+     * @param startY First tile row, inclusive.
+     * @param endX   Last tile column, exclusive.
+     * @param endY   Last tile row, exclusive.
+     * @return true if at least one tile was drawn.
+     */
+    private boolean paintTiles(Graphics2D g, int startX, int startY, int endX, int endY) {
+        boolean drewTiles = false;
+        for (LayerModel layer : layers) {
+            int[] tileData = layer.getTileData();
+            int layerWidth = layer.getLayerWidth();
+            int layerEndX = Math.min(endX, layerWidth);
+            int layerEndY = Math.min(endY, layer.getLayerHeight());
+            for (int y = startY; y < layerEndY; y++) {
+                int rowOffset = y * layerWidth;
+                for (int x = startX; x < layerEndX; x++) {
+                    BufferedImage tile = getTileImage(tileData[rowOffset + x]);
+                    if (tile != null) {
+                        g.drawImage(tile, x * mapModel.getTileWidth(), y * mapModel.getTileHeight(), null);
+                        drewTiles = true;
+                    }
                 }
             }
+        }
+        return drewTiles;
+    }
 
-            if (frame != null && !animation.getName().matches("(?i)sign.*") && !animation.getName().matches("(?i)apple.*") && !animation.getName().matches("(?i)frog.*") && !animation.getName().matches("(?i)Beetle.*") && !animation.getName().matches("bus") && !animation.getName().matches("brown_shop") && !animation.getName().matches("pink_shop") && !animation.getName().matches("(?i)gnome_.*") && !animation.getName().matches("(?i)help_npc(_\\d+)?") && !animation.getName().matches("fountain") && !animation.getName().matches("(?i)study_stud.*") && !animation.getName().matches("(?i)slime.*") && !animation.getName().matches("lowXPChest") && !animation.getName().matches("(?i)phantom.*") && !animation.getName().matches("(?i)spider.*")) {
-                String animationName = animation.getName().toLowerCase();
-                    g2d.drawImage(frame, (int) animation.getX(), (int) animation.getY() - 30,
-                            TILE_RENDER_SIZE/2, TILE_RENDER_SIZE/2, null);
-                }
-
+    /**
+     * Computes the range of tiles (in tile coordinates) that intersects the visible part of the map.
+     * The clip of the graphics context is preferred because it reflects the real size of the panel;
+     * without a clip the range is derived from the camera's position, viewport size and zoom level.
+     * Without either, the whole map is considered visible.
+     *
+     * @param g2d The graphics context with the camera transform already applied.
+     * @return The visible tile range, clamped to the map bounds.
+     */
+    private Rectangle getVisibleTileRange(Graphics2D g2d) {
+        int tileWidth = mapModel.getTileWidth();
+        int tileHeight = mapModel.getTileHeight();
+        Rectangle mapTiles = new Rectangle(0, 0, mapModel.getMapWidth(), mapModel.getMapHeight());
+        if (tileWidth <= 0 || tileHeight <= 0) {
+            return mapTiles;
+        }
 
+        Rectangle view = getVisibleArea(g2d);
+        if (view == null) {
+            return mapTiles;
+        }
 
+        // Include partially visible tiles on every edge
+        int startX = Math.floorDiv(view.x, tileWidth);
+        int startY = Math.floorDiv(view.y, tileHeight);
+        int endX = Math.floorDiv(view.x + view.width + tileWidth - 1, tileWidth);
+        int endY = Math.floorDiv(view.y + view.height + tileHeight - 1, tileHeight);
+        return new Rectangle(startX, startY, endX - startX, endY - startY).intersection(mapTiles);
+    }
 
+    /**
+     * Computes the visible part of the map in map pixels, from the clip of the graphics context or,
+     * without a clip, from the camera.
+     *
+     * @param g2d The graphics context with the camera transform already applied.
+     * @return The visible area, or null if neither a clip nor a camera is available.
+     */
+    private Rectangle getVisibleArea(Graphics2D g2d) {
+        Rectangle view = g2d.getClipBounds();
+        if (view == null && camera != null) {
+            float zoom = camera.getZoomLevel() > 0 ? camera.getZoomLevel() : 1.0f;
+            view = new Rectangle(camera.getX(), camera.getY(),
+                    (int) Math.ceil(camera.getWidth() / zoom), (int) Math.ceil(camera.getHeight() / zoom));
         }
+        return view;
+    }
+
+    /**
+     * Sets the camera used to determine which part of the map is visible.
+     *
+     * @param camera The camera following the character.
+     */
+    public void setCamera(Camera camera) {
+        this.camera = camera;
     }
 
     public boolean checkIfHelped(String animationName) {
@@ -356,17 +419,9 @@ public class TmxRenderer {
             return;
         }
 
-        // Update and get current frame of the enemy animation
-        enemyAnimation.update();
-        int tileId = enemyAnimation.getCurrentTileId();
-        BufferedImage frame = animationFrameCache.get(tileId);
-
-        if (frame == null) {
-            frame = tileImages.get(tileId);
-            if (frame != null) {
-                animationFrameCache.put(tileId, frame);
-            }
-        }
+        // Look up the current frame; several viewers of the same animation see the same frame
+        int tileId = enemyAnimation.getTileIdAt(animationClock.currentTime());
+        BufferedImage frame = getTileImage(tileId);
 
         if (frame != null) {
             int renderWidth = ENEMY_RENDER_SIZE;
@@ -407,13 +462,23 @@ public class TmxRenderer {
             // Use a centralized method to draw the frame
 
          //   g.drawImage(frame, x, y, width, height, null);
-            drawFrame(g, frame, offsetX, offsetY, renderWidth, renderHeight);
+            drawFrame(g, tileId, frame, offsetX, offsetY, renderWidth, renderHeight);
         }
 
     }
 
-    private void drawFrame (Graphics g, BufferedImage frame,int x, int y, int width, int height){
-        g.drawImage(frame, x, y, width, height, null);
+    /**
+     * Draws a frame at the given size, using a cached pre-scaled copy so it is blitted unscaled.
+     */
+    private void drawFrame(Graphics g, int tileId, BufferedImage frame, int x, int y, int width, int height) {
+        g.drawImage(scaledFrameCache.getScaledFrame(tileId, frame, width, height), x, y, null);
+    }
+
+    /**
+     * @return The cache of resized animation frames, exposing its hit and miss counters.
+     */
+    public ScaledFrameCache getScaledFrameCache() {
+        return scaledFrameCache;
     }
 
     // Method to trigger repaint
@@ -423,6 +488,18 @@ public class TmxRenderer {
         }
     }
 
+    /**
+     * Prints how many tiles of each tileset have been used so far.
+     */
+    public void printTilesetUsage() {
+        System.out.println("Tileset usage (tiles used / tiles in tileset):");
+        for (TilesetSheet sheet : tilesetSheets.values()) {
+            TilesetModel tileset = sheet.getTileset();
+            System.out.println(tileset.getTilesetSource() + " (firstgid " + tileset.getFirstGid() + "): "
+                    + sheet.getTouchedTileCount() + " / " + tileset.getTileCount());
+        }
+    }
+
     public void printObjectNames() {
         System.out.println("Objects in TmxRenderer:");
         for (ObjectModel object : objects) {
@@ -0,0 +1,73 @@
+import org.xml.sax.SAXException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Helpers for reading Tiled's XML files with a streaming StAX reader. Each thread gets its own
+ * factory, created once, since factories aren't safe to share between the map loader's threads.
+ */
+public class XmlStreamUtils {
+    private static final ThreadLocal<XMLInputFactory> factories = ThreadLocal.withInitial(() -> {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // Map files have no DTDs or entities; refusing them also keeps parsing local
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        // Let large text such as layer data arrive in chunks instead of as one string
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    });
+
+    /**
+     * Opens a file to pass to {@link #createReader}. The reader reads in blocks of its own, so the
+     * stream isn't buffered.
+     */
+    public static InputStream openFile(File file) throws IOException {
+        return new FileInputStream(file);
+    }
+
+    /**
+     * @param in       The XML to read; the caller closes it.
+     * @param systemId Name of the file, used in error locations.
+     */
+    public static XMLStreamReader createReader(InputStream in, String systemId) throws XMLStreamException {
+        return factories.get().createXMLStreamReader(systemId, in);
+    }
+
+    /**
+     * Returns an attribute of the current start element, or an empty string if it is missing, like
+     * DOM's Element.getAttribute.
+     */
+    public static String getAttribute(XMLStreamReader reader, String name) {
+        String value = reader.getAttributeValue(null, name);
+        return value != null ? value : "";
+    }
+
+    /**
+     * Skips the rest of the current element, leaving the reader on its end tag.
+     */
+    public static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Wraps a streaming error in the exception the parsers have always reported XML errors with.
+     */
+    public static SAXException toSAXException(XMLStreamException e, String path) {
+        return new SAXException("Error parsing " + path + ": " + e.getMessage(), e);
+    }
+}
@@ -4,9 +4,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class AnimationModel {
-    private List<FrameModel> frames;
-    private int currentFrameIndex;
-    private long lastFrameTime;
+    private FrameSequence sequence;      // Frames, possibly shared with other animations
+    private List<FrameModel> pendingFrames;  // Frames added one by one, turned into a sequence on first use
+    private long phaseOffset;           // How far into its cycle this animation is at time 0, in milliseconds
     private int firstGid;
     private double x;
     private double y;
@@ -15,9 +15,19 @@ public class AnimationModel {
     private boolean defeated = false;
 
     public AnimationModel(int firstGid) {
-        this.frames = new ArrayList<>();
-        this.currentFrameIndex = 0;
-        this.lastFrameTime = System.currentTimeMillis();
+        this(firstGid, FrameSequence.EMPTY, 0);
+    }
+
+    /**
+     * Creates an animation that plays a shared frame sequence.
+     *
+     * @param firstGid    The GID of the animated object.
+     * @param sequence    The frames to play; not copied.
+     * @param phaseOffset How far into the sequence the animation is at time 0, in milliseconds.
+     */
+    public AnimationModel(int firstGid, FrameSequence sequence, long phaseOffset) {
+        this.sequence = sequence;
+        this.phaseOffset = phaseOffset;
         this.firstGid = firstGid;
         this.x = 0;
         this.y = 0;
@@ -25,32 +35,51 @@ public class AnimationModel {
 
     public void addFrame(FrameModel frame) {
         if (frame != null) { // Ensure frames are not null
-            frames.add(frame);
+            if (pendingFrames == null) {
+                pendingFrames = new ArrayList<>(sequence.getFrames());
+            }
+            pendingFrames.add(frame);
         }
     }
 
-    public void update() {
-        if (frames.isEmpty()) return; // Avoid updating if no frames are present
-        long currentTime = System.currentTimeMillis();
-        FrameModel currentFrame = frames.get(currentFrameIndex);
-
-        if (currentTime - lastFrameTime >= currentFrame.getDuration()) {
-            currentFrameIndex = (currentFrameIndex + 1) % frames.size(); // Cycle through frames
-            lastFrameTime = currentTime;
-          //  System.out.println("Updating frame for GID " + firstGid + " to tile ID " + getCurrentTileId());
+    /**
+     * Returns the tile shown at the given time. The animation loops from time 0, so the result only
+     * depends on the time and can be asked for any number of times per frame.
+     *
+     * @param timeMillis The animation time in milliseconds.
+     * @return The tile ID of the frame shown at that time, or -1 if there are no frames.
+     */
+    public int getTileIdAt(long timeMillis) {
+        return getSequence().getTileIdAt(timeMillis + phaseOffset);
+    }
+
+    /**
+     * @return The frame sequence this animation plays.
+     */
+    public FrameSequence getSequence() {
+        if (pendingFrames != null) {
+            sequence = new FrameSequence(pendingFrames);
+            pendingFrames = null;
         }
+        return sequence;
+    }
+
+    public long getPhaseOffset() {
+        return phaseOffset;
     }
 
-    public int getCurrentTileId() {
-        return frames.isEmpty() ? -1 : frames.get(currentFrameIndex).getTileId(); // Return -1 if frames are empty
+    public void setPhaseOffset(long phaseOffset) {
+        this.phaseOffset = phaseOffset;
     }
 
     public void setFrames(List<FrameModel> frames) {
-        this.frames = frames != null ? frames : new ArrayList<>(); // Ensure frames list is not null
+        this.sequence = frames != null ? new FrameSequence(frames) : FrameSequence.EMPTY; // Ensure frames are not null
+        this.pendingFrames = null;
     }
 
+    // Returns the frames as an unmodifiable list
     public List<FrameModel> getFrames() {
-        return frames;
+        return getSequence().getFrames();
     }
 
     public int getFirstGid() {
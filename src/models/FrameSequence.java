@@ -0,0 +1,89 @@
+package models;
+
+import java.util.List;
+
+/**
+ * An immutable sequence of animation frames. One sequence is shared by every animation that plays
+ * the same frames (e.g. all slimes on a map), and each animation only adds its own phase offset.
+ * The frame durations are prefix-summed once so the frame for a given time is found with a binary
+ * search.
+ */
+public final class FrameSequence {
+    public static final FrameSequence EMPTY = new FrameSequence(List.of());
+
+    private final List<FrameModel> frames;
+    private final int[] tileIds;
+    private final long[] frameEndTimes;   // End of each frame within one cycle
+    private final long cycleDuration;     // Duration of one full cycle in milliseconds
+
+    public FrameSequence(List<FrameModel> frames) {
+        this.frames = List.copyOf(frames);
+        this.tileIds = new int[this.frames.size()];
+        this.frameEndTimes = new long[this.frames.size()];
+        long end = 0;
+        for (int i = 0; i < tileIds.length; i++) {
+            FrameModel frame = this.frames.get(i);
+            end += Math.max(0, frame.getDuration());
+            tileIds[i] = frame.getTileId();
+            frameEndTimes[i] = end;
+        }
+        this.cycleDuration = end;
+    }
+
+    /**
+     * Finds the frame shown at the given time. The sequence loops from time 0.
+     *
+     * @param timeMillis The animation time in milliseconds.
+     * @return The index of the frame, or -1 if the sequence is empty.
+     */
+    public int getFrameIndexAt(long timeMillis) {
+        if (tileIds.length == 0) {
+            return -1;
+        }
+        if (cycleDuration <= 0) {
+            return 0;
+        }
+        long cycleTime = Math.floorMod(timeMillis, cycleDuration);
+
+        // First frame that ends after the cycle time; zero-length frames are never chosen
+        int low = 0;
+        int high = frameEndTimes.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (frameEndTimes[mid] > cycleTime) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param timeMillis The animation time in milliseconds.
+     * @return The tile ID of the frame shown at that time, or -1 if the sequence is empty.
+     */
+    public int getTileIdAt(long timeMillis) {
+        int index = getFrameIndexAt(timeMillis);
+        return index < 0 ? -1 : tileIds[index];
+    }
+
+    public int getTileId(int frameIndex) {
+        return tileIds[frameIndex];
+    }
+
+    public int getFrameCount() {
+        return tileIds.length;
+    }
+
+    public long getCycleDuration() {
+        return cycleDuration;
+    }
+
+    /**
+     * @return The frames, as an unmodifiable list.
+     */
+    public List<FrameModel> getFrames() {
+        return frames;
+    }
+}
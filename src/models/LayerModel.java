@@ -1,18 +1,15 @@
 package models;
 
-import java.util.List;
-import java.util.ArrayList;
-
 public class LayerModel {
     private String name;
     private int width, height;
-    private List<Integer> tileData; // Store tile IDs in a list
+    private int[] tileData; // Store tile IDs row by row
     private int layerId;
-    public LayerModel(String name, int width, int height, String data, int layerId) {
+    public LayerModel(String name, int width, int height, int[] tileData, int layerId) {
         this.name = name;
         this.width = width;
         this.height = height;
-        this.tileData = parseTileData(data);
+        this.tileData = tileData;
         this.layerId = layerId;
     }
 
@@ -23,25 +20,21 @@ public class LayerModel {
         return this.height;
     }
 
-    // Method to parse and set tile data from CSV format
-    private List<Integer> parseTileData(String data) {
-        List<Integer> tileIds = new ArrayList<>();
-        String[] dataEntries = data.split(",");
-        for (String entry : dataEntries) {
-            tileIds.add(Integer.parseInt(entry.trim())); // Add each tile ID as an Integer
-        }
-        return tileIds;
-    }
-
     public int getTileIdAt(int x, int y) {
         if (x < 0 || y < 0 || x >= width || y >= height) {
             throw new IndexOutOfBoundsException("Coordinates are out of layer bounds.");
         }
         int index = y * width + x;  // Calculate index in 1D array
-        return tileData.get(index);
+        return tileData[index];
     }
 
-    public List<Integer> getTileData() {
+    /**
+     * Returns the backing tile array, stored row by row (index = y * width + x). Renderers can read
+     * it directly to avoid per-tile bounds checks; it must not be modified.
+     *
+     * @return The tile IDs of this layer.
+     */
+    public int[] getTileData() {
         return tileData;
     }
 
@@ -30,6 +30,22 @@ public class ObjectModel {
         this.properties = new ArrayList<ObjectPropertiesModel>(); // Initialize as an empty list to avoid NullPointerException
     }
 
+    // Copies an object, e.g. from a cached map, so the copy can be moved, defeated or helped on its own.
+    // Properties are shared since they are never changed after parsing.
+    public ObjectModel(ObjectModel other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.gid = other.gid;
+        this.x = other.x;
+        this.y = other.y;
+        this.width = other.width;
+        this.height = other.height;
+        this.properties = new ArrayList<>(other.properties);
+        this.layerName = other.layerName;
+        this.defeated = other.defeated;
+        this.isHelped = other.isHelped;
+    }
+
     public ArrayList<ObjectPropertiesModel> getProperties() {
         return properties;
     }